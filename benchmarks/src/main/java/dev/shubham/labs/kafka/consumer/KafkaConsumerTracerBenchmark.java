@@ -0,0 +1,79 @@
+package dev.shubham.labs.kafka.consumer;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Cost of KafkaConsumerTracer.tracedOperation per record: header extraction, span creation and the breaker
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KafkaConsumerTracerBenchmark {
+
+    // "sdk" samples every span with no exporter attached, "noop" measures the overhead without a tracer
+    @Param({"sdk", "noop"})
+    private String openTelemetry;
+
+    private OpenTelemetrySdk sdk;
+    private KafkaConsumerTracer tracer;
+    private ConsumerRecord<String, String> record;
+    private Runnable operation;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        OpenTelemetry otel = OpenTelemetry.noop();
+        if ("sdk".equals(openTelemetry)) {
+            sdk = OpenTelemetrySdk.builder()
+                    .setTracerProvider(SdkTracerProvider.builder().setSampler(Sampler.alwaysOn()).build())
+                    .build();
+            otel = sdk;
+        }
+        tracer = new KafkaConsumerTracer("inventory-consumer", otel, CircuitBreaker.ofDefaults("benchmark"));
+
+        var headers = new RecordHeaders();
+        headers.add("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"
+                .getBytes(StandardCharsets.UTF_8));
+        headers.add("baggage", "tenant=acme".getBytes(StandardCharsets.UTF_8));
+        record = new ConsumerRecord<>("allocate-inventory-event", 0, 42L, System.currentTimeMillis(),
+                TimestampType.CREATE_TIME, 6, 20, "beer-1", "{\"beerId\":\"beer-1\"}", headers, Optional.empty());
+        operation = () -> blackhole.consume(record.value());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (sdk != null) {
+            sdk.close();
+        }
+    }
+
+    @Benchmark
+    public void tracedOperation() {
+        tracer.tracedOperation(record, operation);
+    }
+}
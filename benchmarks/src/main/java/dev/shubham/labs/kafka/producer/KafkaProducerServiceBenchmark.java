@@ -0,0 +1,89 @@
+package dev.shubham.labs.kafka.producer;
+
+import dev.shubham.labs.kafka.AllocateInventoryEvent;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Producer-side cost per record against a MockProducer, so the broker round trip is not part of the numbers
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KafkaProducerServiceBenchmark {
+
+    // compare gc.alloc.rate.norm of send between the Message path and the ProducerRecord fast path
+    @Param({"false", "true"})
+    private boolean fastPath;
+
+    private MockProducer<String, AllocateInventoryEvent> producer;
+    private ExecutorService executor;
+    private KafkaProducerServiceImpl<String, AllocateInventoryEvent> service;
+    private AllocateInventoryEvent event;
+    private Map<String, Object> customHeaders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        producer = new MockProducer<>(true, new StringSerializer(), new JsonSerializer<>());
+        KafkaTemplate<String, AllocateInventoryEvent> template = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+        template.setDefaultTopic("allocate-inventory-event");
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        service = new KafkaProducerServiceImpl<>(template, ObservationRegistry.NOOP, executor,
+                OpenTelemetry.noop().getTracer("benchmark"), fastPath) {
+        };
+        event = new AllocateInventoryEvent("beer-1");
+        customHeaders = Map.of("x-source", "benchmark");
+    }
+
+    // MockProducer keeps every sent record, so drop them between iterations to keep the heap flat
+    @TearDown(Level.Iteration)
+    public void clearHistory() {
+        producer.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Object> generateHeaders() {
+        return service.generateHeaders(event, customHeaders);
+    }
+
+    @Benchmark
+    public void send() {
+        service.send(event, customHeaders, (result, ex) -> {
+        });
+    }
+
+    @Benchmark
+    public void sendWithoutHeaders() {
+        service.send(event, (result, ex) -> {
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package dev.shubham.labs.kafka.xconsumer;
+
+import dev.shubham.labs.kafka.xconsumer.event.EventService;
+import dev.shubham.labs.kafka.xconsumer.event.NoOpEventService;
+import dev.shubham.labs.kafka.xconsumer.resiliency.NoOpResilienceStrategy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-record overhead of CustomizedMessageListener around an empty processor
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageListenerBenchmark {
+
+    @Param({"noop", "stub"})
+    private String eventService;
+
+    private AcknowledgingMessageListener<String, String> listener;
+    private ConsumerRecord<String, String> record;
+    private Acknowledgment acknowledgment;
+    private Blackhole blackhole;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        EventService<String, String> service = "noop".equals(eventService)
+                ? new NoOpEventService<>()
+                : new StubEventService();
+        listener = new CustomizedMessageListener<>(service, new NoOpResilienceStrategy(),
+                r -> this.blackhole.consume(r.value())).messageListener();
+        record = new ConsumerRecord<>("allocate-inventory-event", 0, 42L, "beer-1", "{\"beerId\":\"beer-1\"}");
+        acknowledgment = () -> this.blackhole.consume(record);
+    }
+
+    @Benchmark
+    public void onMessage() {
+        listener.onMessage(record, acknowledgment);
+    }
+
+    // Journals into the Blackhole, so the numbers show the listener's cost rather than a database's
+    private final class StubEventService implements EventService<String, String> {
+
+        @Override
+        public void saveEvent(ConsumerRecord<String, String> record) {
+            blackhole.consume(record.offset());
+        }
+
+        @Override
+        public void updateEventStateToProcessing(ConsumerRecord<String, String> record) {
+            blackhole.consume(record.offset());
+        }
+
+        @Override
+        public void updateEventStateToConsumedSuccessfully(ConsumerRecord<String, String> record) {
+            blackhole.consume(record.offset());
+        }
+
+        @Override
+        public void updateEventStateToConsumedFailure(ConsumerRecord<String, String> record, Throwable error) {
+            blackhole.consume(error);
+        }
+
+        @Override
+        public boolean isNoOp() {
+            return false;
+        }
+    }
+}
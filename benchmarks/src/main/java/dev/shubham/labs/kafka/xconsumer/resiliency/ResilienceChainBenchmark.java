@@ -0,0 +1,55 @@
+package dev.shubham.labs.kafka.xconsumer.resiliency;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Overhead of the strategies ResilienceStrategyFactory builds, wrapped around an action that always succeeds
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResilienceChainBenchmark {
+
+    @Param({"noop", "circuitBreaker", "retry", "circuitBreakerAndRetry", "circuitBreakerRetryAndLimiter"})
+    private String chain;
+
+    private ResilienceStrategy strategy;
+    private Runnable action;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        var circuitBreaker = CircuitBreaker.ofDefaults("benchmark");
+        var retry = Retry.ofDefaults("benchmark");
+        strategy = switch (chain) {
+            case "circuitBreaker" -> ResilienceStrategyFactory.createStrategy(circuitBreaker, null);
+            case "retry" -> ResilienceStrategyFactory.createStrategy(null, retry);
+            case "circuitBreakerAndRetry" -> ResilienceStrategyFactory.createStrategy(circuitBreaker, retry);
+            case "circuitBreakerRetryAndLimiter" -> ResilienceStrategyFactory.createStrategy(circuitBreaker, retry,
+                    AdaptiveConcurrencyStrategy.builder().build());
+            default -> ResilienceStrategyFactory.createStrategy(null, null);
+        };
+        action = () -> blackhole.consume(System.nanoTime());
+    }
+
+    @Benchmark
+    public void executeWithResilience() throws Throwable {
+        strategy.executeWithResilience(action);
+    }
+}
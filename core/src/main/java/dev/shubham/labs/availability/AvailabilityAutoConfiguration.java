@@ -0,0 +1,41 @@
+package dev.shubham.labs.availability;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@AutoConfiguration(after = RedisAutoConfiguration.class)
+@ConditionalOnClass(StringRedisTemplate.class)
+@ConditionalOnProperty(name = "application.availability.enabled", havingValue = "true")
+@EnableConfigurationProperties(AvailabilityProps.class)
+public class AvailabilityAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RedisMessageListenerContainer availabilityListenerContainer(RedisConnectionFactory connectionFactory) {
+        var container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AvailabilityBackend availabilityBackend(StringRedisTemplate stringRedisTemplate,
+                                                   RedisMessageListenerContainer availabilityListenerContainer,
+                                                   AvailabilityProps availabilityProps) {
+        return new RedisAvailabilityBackend(stringRedisTemplate, availabilityListenerContainer, availabilityProps);
+    }
+
+    @Bean
+    public AvailabilityStore availabilityStore(AvailabilityBackend availabilityBackend,
+                                               AvailabilityProps availabilityProps) {
+        return new AvailabilityStore(availabilityBackend, availabilityProps);
+    }
+}
@@ -0,0 +1,17 @@
+package dev.shubham.labs.availability;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Shared store behind AvailabilityStore's near cache; RedisAvailabilityBackend in production
+public interface AvailabilityBackend {
+
+    // Stores the levels and publishes the invalidation message to every subscriber
+    void write(Map<String, Integer> levels, String invalidation);
+
+    // Levels found for the given products; missing products are left out
+    Map<String, Integer> read(Collection<String> productIds);
+
+    void subscribe(Consumer<String> invalidationListener);
+}
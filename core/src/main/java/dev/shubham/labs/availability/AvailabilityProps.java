@@ -0,0 +1,27 @@
+package dev.shubham.labs.availability;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "application.availability")
+public class AvailabilityProps {
+
+    private boolean enabled = false;
+    private String keyPrefix = "availability:";
+    private String invalidationChannel = "availability:invalidate";
+    // Redis entries expire if the inventory service stops refreshing them
+    private Duration entryTtl = Duration.ofMinutes(10);
+    // keys per MGET when a batch read is split into pipelined commands
+    private int readChunkSize = 500;
+    private long nearCacheSize = 100_000;
+    // bounds staleness should an invalidation message be missed
+    private Duration nearCacheTtl = Duration.ofSeconds(5);
+
+}
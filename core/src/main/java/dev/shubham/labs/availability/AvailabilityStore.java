@@ -0,0 +1,86 @@
+package dev.shubham.labs.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Available quantity per product, shared through the backend with a per-pod near cache in front. Writers
+// publish the changed ids and every other pod drops them from its near cache; a writer skips its own messages
+// since it has already cached the new values. Reads never fail: when the backend is unreachable the caller
+// gets what the near cache holds and falls back to the inventory service for the rest.
+@Slf4j
+public class AvailabilityStore {
+
+    private static final char ORIGIN_SEPARATOR = '|';
+    private static final String ID_SEPARATOR = "\n";
+
+    private final AvailabilityBackend backend;
+    private final Cache<String, Integer> nearCache;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public AvailabilityStore(AvailabilityBackend backend, AvailabilityProps props) {
+        this.backend = backend;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(props.getNearCacheSize())
+                .expireAfterWrite(props.getNearCacheTtl())
+                .build();
+        backend.subscribe(this::onInvalidation);
+    }
+
+    public void put(String productId, int available) {
+        putAll(Map.of(productId, available));
+    }
+
+    // False when the backend write failed; the levels are then dropped from the near cache
+    public boolean putAll(Map<String, Integer> levels) {
+        if (levels.isEmpty()) {
+            return true;
+        }
+        try {
+            backend.write(levels, instanceId + ORIGIN_SEPARATOR + String.join(ID_SEPARATOR, levels.keySet()));
+            nearCache.putAll(levels);
+            return true;
+        } catch (RuntimeException e) {
+            // readers fall back to the inventory service until the next successful write
+            nearCache.invalidateAll(levels.keySet());
+            log.error("Failed to write availability for {} products", levels.size(), e);
+            return false;
+        }
+    }
+
+    public Map<String, Integer> getAll(Collection<String> productIds) {
+        Map<String, Integer> found = new HashMap<>(nearCache.getAllPresent(productIds));
+        if (found.size() == productIds.size()) {
+            return found;
+        }
+        List<String> missing = new ArrayList<>(productIds.size() - found.size());
+        for (String productId : productIds) {
+            if (!found.containsKey(productId)) {
+                missing.add(productId);
+            }
+        }
+        try {
+            Map<String, Integer> remote = backend.read(missing);
+            nearCache.putAll(remote);
+            found.putAll(remote);
+        } catch (RuntimeException e) {
+            log.error("Failed to read availability for {} products", missing.size(), e);
+        }
+        return found;
+    }
+
+    void onInvalidation(String message) {
+        int separator = message.indexOf(ORIGIN_SEPARATOR);
+        if (separator < 0 || instanceId.equals(message.substring(0, separator))) {
+            return;
+        }
+        nearCache.invalidateAll(List.of(message.substring(separator + 1).split(ID_SEPARATOR)));
+    }
+}
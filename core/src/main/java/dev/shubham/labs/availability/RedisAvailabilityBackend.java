@@ -0,0 +1,106 @@
+package dev.shubham.labs.availability;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Levels are plain string values under keyPrefix + productId. Writes send SET with a TTL per product and the
+// PUBLISH in one pipeline; reads split into MGETs of readChunkSize keys sent as one pipeline.
+public class RedisAvailabilityBackend implements AvailabilityBackend {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final AvailabilityProps props;
+    private final byte[] channel;
+
+    public RedisAvailabilityBackend(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                                    AvailabilityProps props) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.props = props;
+        this.channel = props.getInvalidationChannel().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void write(Map<String, Integer> levels, String invalidation) {
+        Expiration ttl = Expiration.from(props.getEntryTtl());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            levels.forEach((productId, available) -> connection.stringCommands().set(key(productId),
+                    Integer.toString(available).getBytes(StandardCharsets.UTF_8), ttl,
+                    RedisStringCommands.SetOption.upsert()));
+            connection.publish(channel, invalidation.getBytes(StandardCharsets.UTF_8));
+            return null;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Integer> read(Collection<String> productIds) {
+        List<List<String>> chunks = chunk(productIds);
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (List<String> chunk : chunks) {
+                mget(connection, chunk);
+            }
+            return null;
+        });
+        Map<String, Integer> levels = new HashMap<>(productIds.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            List<String> chunk = chunks.get(i);
+            List<String> values = (List<String>) replies.get(i);
+            for (int j = 0; j < chunk.size(); j++) {
+                String value = values != null ? values.get(j) : null;
+                if (value != null) {
+                    levels.put(chunk.get(j), Integer.parseInt(value));
+                }
+            }
+        }
+        return levels;
+    }
+
+    @Override
+    public void subscribe(Consumer<String> invalidationListener) {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> invalidationListener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(props.getInvalidationChannel()));
+    }
+
+    private void mget(RedisConnection connection, List<String> productIds) {
+        byte[][] keys = new byte[productIds.size()][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key(productIds.get(i));
+        }
+        connection.stringCommands().mGet(keys);
+    }
+
+    private List<List<String>> chunk(Collection<String> productIds) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> current = new ArrayList<>(Math.min(productIds.size(), props.getReadChunkSize()));
+        for (String productId : productIds) {
+            current.add(productId);
+            if (current.size() == props.getReadChunkSize()) {
+                chunks.add(current);
+                current = new ArrayList<>(props.getReadChunkSize());
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private byte[] key(String productId) {
+        return (props.getKeyPrefix() + productId).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,102 @@
+package dev.shubham.labs.client;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.service.annotation.GetExchange;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+// Read-through cache in front of an @HttpExchange client. Only @GetExchange methods are cached, keyed by
+// method and arguments; hits never reach the retry and circuit breaker interceptor, so cached reads keep
+// working while the breaker is open. Stale entries are served while a background call refreshes them.
+@Slf4j
+class CachingClientInvocationHandler implements InvocationHandler {
+
+    private final Object delegate;
+    private final LoadingCache<CacheKey, Object> cache;
+
+    private CachingClientInvocationHandler(Object delegate, ClientProps.Cache props, Ticker ticker, Executor executor) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getMaximumSize())
+                .expireAfterWrite(props.getExpireAfterWrite())
+                .refreshAfterWrite(props.getRefreshAfterWrite())
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build(this::load);
+    }
+
+    static <S> S wrap(Class<S> serviceType, S delegate, ClientProps.Cache props, MeterRegistry meterRegistry) {
+        return wrap(serviceType, delegate, props, meterRegistry, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    // the ticker and the refresh executor are only swapped out by tests
+    @SuppressWarnings("unchecked")
+    static <S> S wrap(Class<S> serviceType, S delegate, ClientProps.Cache props, MeterRegistry meterRegistry,
+                      Ticker ticker, Executor executor) {
+        var handler = new CachingClientInvocationHandler(delegate, props, ticker, executor);
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, handler.cache, serviceType.getSimpleName());
+        }
+        // a closeable delegate stays closeable through the proxy, so the bean's destroy callback still reaches it
+        Class<?>[] interfaces = delegate instanceof AutoCloseable
+                ? new Class<?>[]{serviceType, AutoCloseable.class}
+                : new Class<?>[]{serviceType};
+        return (S) Proxy.newProxyInstance(serviceType.getClassLoader(), interfaces, handler);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.isDefault() || !AnnotatedElementUtils.hasAnnotation(method, GetExchange.class)) {
+            return invokeDelegate(method, args);
+        }
+        var key = new CacheKey(method, args != null ? Arrays.asList(args.clone()) : List.of());
+        try {
+            Object value = cache.get(key);
+            // error responses are handed back but not kept
+            if (value instanceof ResponseEntity<?> response && !response.getStatusCode().is2xxSuccessful()) {
+                cache.invalidate(key);
+            }
+            return value;
+        } catch (CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    private Object load(CacheKey key) throws Exception {
+        log.debug("Cache miss for {}", key.method().getName());
+        return invokeDelegate(key.method(), key.args().toArray());
+    }
+
+    private Object invokeDelegate(Method method, Object[] args) throws Exception {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            if (e.getTargetException() instanceof Exception cause) {
+                throw cause;
+            }
+            if (e.getTargetException() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private record CacheKey(Method method, List<Object> args) {
+    }
+}
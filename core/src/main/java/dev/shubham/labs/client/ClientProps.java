@@ -15,5 +15,26 @@ public class ClientProps {
     @NotBlank(message = "Base URL field cannot be Blank for ClientConfig")
     private String baseUrl;
     private Duration connectTimeout = Duration.ofSeconds(10);
+    private Coalescing coalescing = new Coalescing();
+    private Cache cache = new Cache();
 
+    @Getter
+    @Setter
+    public static class Coalescing {
+        private boolean enabled = false;
+        // a batch is sent once it holds this many keys or its first key has waited maxDelay
+        private int maxBatchSize = 100;
+        private Duration maxDelay = Duration.ofMillis(2);
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = false;
+        private long maximumSize = 10_000;
+        // entries older than this are dropped and the next read goes over the wire
+        private Duration expireAfterWrite = Duration.ofSeconds(30);
+        // entries older than this are still served while a background call refreshes them
+        private Duration refreshAfterWrite = Duration.ofSeconds(10);
+    }
 }
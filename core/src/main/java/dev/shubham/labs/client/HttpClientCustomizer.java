@@ -2,6 +2,7 @@ package dev.shubham.labs.client;
 
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +18,7 @@ import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 import java.net.http.HttpClient;
 import java.time.Duration;
 import java.util.Objects;
+import java.util.function.UnaryOperator;
 
 import static dev.shubham.labs.Helper.uuid;
 
@@ -27,7 +29,9 @@ public class HttpClientCustomizer<S> {
     protected final S client;
 
     @Builder
-    protected HttpClientCustomizer(RestClient.Builder builder, ClientProps clientProps, Class<S> serviceType, Retry retry, CircuitBreaker circuitBreaker) {
+    protected HttpClientCustomizer(RestClient.Builder builder, ClientProps clientProps, Class<S> serviceType, Retry retry,
+                                   CircuitBreaker circuitBreaker, MeterRegistry meterRegistry,
+                                   UnaryOperator<S> decorator) {
         Objects.requireNonNull(builder, "RestClient.Builder must not be null");
         Objects.requireNonNull(clientProps, "ClientConfig must not be null");
         Objects.requireNonNull(serviceType, "Service type must not be null");
@@ -39,7 +43,14 @@ public class HttpClientCustomizer<S> {
                 .build();
         var adapter = RestClientAdapter.create(restClient);
         var factory = HttpServiceProxyFactory.builderFor(adapter).build();
-        client = factory.createClient(serviceType);
+        var httpClient = factory.createClient(serviceType);
+        // decorators sit between the cache and the wire, so a cache hit never reaches them
+        if (decorator != null) {
+            httpClient = decorator.apply(httpClient);
+        }
+        client = clientProps.getCache().isEnabled()
+                ? CachingClientInvocationHandler.wrap(serviceType, httpClient, clientProps.getCache(), meterRegistry)
+                : httpClient;
     }
 
     private ClientHttpRequestFactory clientHttpRequestFactory(Duration connectTimeout) {
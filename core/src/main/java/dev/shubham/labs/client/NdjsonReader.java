@@ -0,0 +1,49 @@
+package dev.shubham.labs.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Reads newline-delimited JSON lazily, one value per line, so a streamed response is never held in memory
+// whole. The returned stream owns the input and must be closed.
+public final class NdjsonReader {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private NdjsonReader() {
+    }
+
+    public static <T> Stream<T> read(InputStream input, Class<T> type) {
+        try {
+            MappingIterator<T> values = OBJECT_MAPPER.readerFor(type).readValues(input);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(values, Spliterator.ORDERED), false)
+                    .onClose(() -> {
+                        try {
+                            values.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException e) {
+            closeQuietly(input);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void closeQuietly(InputStream input) {
+        try {
+            input.close();
+        } catch (IOException ignored) {
+            // already failing with the read error
+        }
+    }
+}
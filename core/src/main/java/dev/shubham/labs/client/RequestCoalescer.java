@@ -0,0 +1,121 @@
+package dev.shubham.labs.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Gathers concurrent single-key lookups into one batched call. A batch is sent once it holds maxBatchSize
+// keys or its first key has waited maxDelay; callers asking for a key already pending share its future.
+@Slf4j
+public class RequestCoalescer<K, V> implements AutoCloseable {
+
+    private final Function<Set<K>, Map<K, V>> batchLoader;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public RequestCoalescer(String name, Function<Set<K>, Map<K, V>> batchLoader, int maxBatchSize, Duration maxDelay) {
+        if (maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        this.batchLoader = batchLoader;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-coalescer-", 0).factory());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name(name + "-coalescer-timer").factory());
+    }
+
+    public CompletableFuture<V> submit(K key) {
+        Map<K, CompletableFuture<V>> batch = null;
+        CompletableFuture<V> future;
+        lock.lock();
+        try {
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+            if (pending.size() >= maxBatchSize) {
+                batch = takeBatch();
+            } else if (pending.size() == 1) {
+                scheduledFlush = scheduler.schedule(this::flush, maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+        return future;
+    }
+
+    // Blocks for the value, rethrowing the batch call's own exception rather than the future's wrapper
+    public V get(K key) {
+        try {
+            return submit(key).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void flush() {
+        Map<K, CompletableFuture<V>> batch;
+        lock.lock();
+        try {
+            batch = takeBatch();
+        } finally {
+            lock.unlock();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        scheduler.shutdown();
+        executor.shutdown();
+    }
+
+    private Map<K, CompletableFuture<V>> takeBatch() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        executor.execute(() -> {
+            try {
+                log.debug("Sending coalesced batch of {} keys", batch.size());
+                Map<K, V> results = batchLoader.apply(batch.keySet());
+                batch.forEach((key, future) -> future.complete(results.get(key)));
+            } catch (Throwable e) {
+                batch.values().forEach(future -> future.completeExceptionally(e));
+            }
+        });
+    }
+}
@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Duration;
 import java.util.List;
 
 @Getter
@@ -16,5 +17,63 @@ public class KafkaConsumerProps extends KafkaProps {
     private String consumerGroup;
     private int concurrency = 1;
     private List<String> circuitBreakers;
+    // records processed concurrently per container, keeping per-key order; 0 processes on the poll thread
+    private int maxInFlight;
+    private Tracing tracing = new Tracing();
+    private Metrics metrics = new Metrics();
+    private Autoscaling autoscaling = new Autoscaling();
+    private Dedup dedup = new Dedup();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Tracing {
+        // one sampled span per record instead of the interceptor and observation spans
+        private boolean enabled = false;
+        // traces started per topic per second, on top of every failed or slow record
+        private double tracesPerSecond = 10;
+        private Duration slowThreshold = Duration.ofMillis(500);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Metrics {
+        // per-stage listener timers, registered when the builder has a MeterRegistry
+        private boolean enabled = true;
+        private List<Double> percentiles = List.of(0.5, 0.95, 0.99);
+        private List<Duration> slos = List.of(Duration.ofMillis(5), Duration.ofMillis(25), Duration.ofMillis(100),
+                Duration.ofMillis(500), Duration.ofSeconds(1));
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Autoscaling {
+        // resizes the dispatcher's maxInFlight from the lag monitor's snapshots; needs maxInFlight > 0
+        private boolean enabled = false;
+        private int minInFlight = 16;
+        private int maxInFlight = 1024;
+        // scale up while the backlog takes longer than this to drain, down once it drains within scaleDownLag
+        private Duration targetLag = Duration.ofSeconds(30);
+        private Duration scaleDownLag = Duration.ofSeconds(5);
+        // no scale up while records already take this long, more workers would only load the dependency further
+        private Duration maxRecordLatency = Duration.ofSeconds(1);
+        // consecutive lag snapshots past a threshold before acting
+        private int breaches = 3;
+        private Duration cooldown = Duration.ofSeconds(60);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Dedup {
+        // skips redelivered records in memory instead of letting the journal's unique index reject them
+        private boolean enabled = false;
+        // processed offsets remembered per partition above the committed position
+        private int windowSize = 100_000;
+        // > 0 also skips records whose key was already processed, for topics keyed by idempotency key
+        private int keyCacheSize = 0;
+    }
 
 }
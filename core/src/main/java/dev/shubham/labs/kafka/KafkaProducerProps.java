@@ -4,11 +4,27 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Duration;
+
 @Getter
 @Setter
 @NoArgsConstructor
 public class KafkaProducerProps extends KafkaProps {
 
     private boolean idempotence;
+    // send ProducerRecords directly instead of going through Spring Message conversion
+    private boolean fastPath;
+    private Outbox outbox = new Outbox();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Outbox {
+        // starts the relay draining kafka_outbox rows for this producer's topic
+        private boolean enabled = false;
+        private Duration pollInterval = Duration.ofMillis(100);
+        private int batchSize = 500;
+        private Duration sendTimeout = Duration.ofSeconds(30);
+    }
 
 }
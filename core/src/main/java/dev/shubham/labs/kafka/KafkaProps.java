@@ -15,4 +15,7 @@ public abstract class KafkaProps {
 
     private String topic;
 
+    // RecordCodec for the value; when unset the JSON serializer and deserializer are used
+    private Class<?> valueCodec;
+
 }
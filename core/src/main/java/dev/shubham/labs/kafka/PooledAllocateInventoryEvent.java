@@ -0,0 +1,59 @@
+package dev.shubham.labs.kafka;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.shubham.labs.kafka.codec.PooledRecord;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Reusable counterpart of AllocateInventoryEvent for pooled consumption. beerId is kept as the raw UTF-8 bytes
+// in a buffer that is reused across records and only turned into a String when read.
+public class PooledAllocateInventoryEvent extends PooledRecord implements Record<String> {
+
+    private byte[] beerIdBytes = new byte[64];
+    private int beerIdLength = -1;
+    private String beerId;
+
+    @JsonProperty("beerId")
+    public String beerId() {
+        if (beerId == null && beerIdLength >= 0) {
+            beerId = new String(beerIdBytes, 0, beerIdLength, StandardCharsets.UTF_8);
+        }
+        return beerId;
+    }
+
+    @JsonProperty("beerId")
+    public void beerId(String beerId) {
+        this.beerId = beerId;
+        this.beerIdLength = beerId != null ? 0 : -1;
+    }
+
+    // Copies length bytes from the buffer without decoding them; -1 marks a null beerId
+    public void readBeerId(ByteBuffer buffer, int length) {
+        beerId = null;
+        beerIdLength = length;
+        if (length < 0) {
+            return;
+        }
+        if (length > beerIdBytes.length) {
+            beerIdBytes = Arrays.copyOf(beerIdBytes, Math.max(length, beerIdBytes.length * 2));
+        }
+        buffer.get(beerIdBytes, 0, length);
+    }
+
+    @Override
+    public String key() {
+        return beerId();
+    }
+
+    public AllocateInventoryEvent toEvent() {
+        return new AllocateInventoryEvent(beerId());
+    }
+
+    @Override
+    protected void clear() {
+        beerId = null;
+        beerIdLength = -1;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.shubham.labs.kafka.codec;
+
+import dev.shubham.labs.kafka.AllocateInventoryEvent;
+
+import java.nio.ByteBuffer;
+
+// v1: beerId
+public class AllocateInventoryEventCodec implements RecordCodec<AllocateInventoryEvent> {
+
+    private static final byte VERSION = 1;
+
+    @Override
+    public Class<AllocateInventoryEvent> type() {
+        return AllocateInventoryEvent.class;
+    }
+
+    @Override
+    public byte version() {
+        return VERSION;
+    }
+
+    @Override
+    public int encodedSize(AllocateInventoryEvent value) {
+        return BinaryFields.sizeOf(value.beerId());
+    }
+
+    @Override
+    public void encode(AllocateInventoryEvent value, ByteBuffer buffer) {
+        BinaryFields.putString(buffer, value.beerId());
+    }
+
+    @Override
+    public AllocateInventoryEvent decode(byte version, ByteBuffer buffer) {
+        return new AllocateInventoryEvent(BinaryFields.getString(buffer));
+    }
+}
@@ -0,0 +1,46 @@
+package dev.shubham.labs.kafka.codec;
+
+import dev.shubham.labs.kafka.PooledAllocateInventoryEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.ByteBuffer;
+
+// Same wire format as AllocateInventoryEventCodec, decoded into pooled holders
+public class PooledAllocateInventoryEventCodec implements ReusableRecordCodec<PooledAllocateInventoryEvent> {
+
+    private static final byte VERSION = 1;
+
+    @Override
+    public Class<PooledAllocateInventoryEvent> type() {
+        return PooledAllocateInventoryEvent.class;
+    }
+
+    @Override
+    public byte version() {
+        return VERSION;
+    }
+
+    @Override
+    public PooledAllocateInventoryEvent newInstance() {
+        return new PooledAllocateInventoryEvent();
+    }
+
+    @Override
+    public int encodedSize(PooledAllocateInventoryEvent value) {
+        return BinaryFields.sizeOf(value.beerId());
+    }
+
+    @Override
+    public void encode(PooledAllocateInventoryEvent value, ByteBuffer buffer) {
+        BinaryFields.putString(buffer, value.beerId());
+    }
+
+    @Override
+    public void decodeInto(byte version, ByteBuffer buffer, PooledAllocateInventoryEvent target) {
+        int length = buffer.getInt();
+        if (length > buffer.remaining()) {
+            throw new SerializationException("String length " + length + " exceeds remaining " + buffer.remaining());
+        }
+        target.readBeerId(buffer, length);
+    }
+}
@@ -0,0 +1,28 @@
+package dev.shubham.labs.kafka.codec;
+
+// Mutable record holder handed out by a RecordPool. The listener releases it once the record has been processed
+// and acknowledged, after which its fields are cleared and the instance is reused for a later record; anything
+// that has to outlive processing must copy the values out.
+public abstract class PooledRecord {
+
+    private RecordPool<?> pool;
+    private boolean inUse;
+
+    public final void release() {
+        if (pool != null && inUse) {
+            inUse = false;
+            clear();
+            pool.recycle(this);
+        }
+    }
+
+    protected abstract void clear();
+
+    final void attach(RecordPool<?> pool) {
+        this.pool = pool;
+    }
+
+    final void markInUse() {
+        inUse = true;
+    }
+}
@@ -0,0 +1,102 @@
+package dev.shubham.labs.kafka.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+// Decodes straight from the fetched ByteBuffer into holders taken from a RecordPool, so a consumed record
+// costs no byte[] copy and, once the pool is warm, no new value object. Holders go back to the pool when the
+// listener releases them. Payloads without the codec's magic byte are read as JSON into the holder.
+public class PooledRecordDeserializer<T extends PooledRecord> implements Deserializer<T> {
+
+    public static final String POOL_SIZE_CONFIG = "record.pool.size";
+    private static final int DEFAULT_POOL_SIZE = 1024;
+
+    private ReusableRecordCodec<T> codec;
+    private RecordPool<T> pool;
+    private ObjectMapper jsonFallback;
+
+    // Used by Kafka, which configures the codec from RecordCodecSerializer.VALUE_CODEC_CONFIG
+    public PooledRecordDeserializer() {
+    }
+
+    public PooledRecordDeserializer(ReusableRecordCodec<T> codec, int poolSize) {
+        this.codec = codec;
+        this.pool = new RecordPool<>(codec::newInstance, poolSize);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (codec != null) {
+            return;
+        }
+        String key = isKey ? RecordCodecSerializer.KEY_CODEC_CONFIG : RecordCodecSerializer.VALUE_CODEC_CONFIG;
+        RecordCodec<T> configured = RecordCodecs.fromConfig(configs, key);
+        if (!(configured instanceof ReusableRecordCodec<T> reusable)) {
+            throw new ConfigException(key, configured.getClass().getName(), "must be a ReusableRecordCodec");
+        }
+        Object poolSize = configs.get(POOL_SIZE_CONFIG);
+        codec = reusable;
+        pool = new RecordPool<>(codec::newInstance,
+                poolSize != null ? Integer.parseInt(poolSize.toString()) : DEFAULT_POOL_SIZE);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return data == null ? null : deserialize(topic, null, ByteBuffer.wrap(data));
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        return deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        T target = pool.acquire();
+        try {
+            if (data.remaining() < RecordCodecSerializer.FRAME_SIZE
+                    || data.get(data.position()) != RecordCodecSerializer.MAGIC) {
+                return fromJson(data, target);
+            }
+            data.get();
+            byte version = data.get();
+            if (version > codec.version()) {
+                throw new SerializationException("Unsupported " + codec.type().getSimpleName() + " schema version "
+                        + version + ", this codec reads up to " + codec.version());
+            }
+            codec.decodeInto(version, data, target);
+            return target;
+        } catch (RuntimeException e) {
+            target.release();
+            throw e;
+        }
+    }
+
+    public RecordPool<T> getPool() {
+        return pool;
+    }
+
+    private T fromJson(ByteBuffer data, T target) {
+        if (jsonFallback == null) {
+            jsonFallback = new ObjectMapper();
+        }
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        try {
+            return jsonFallback.readerForUpdating(target).readValue(bytes);
+        } catch (IOException e) {
+            throw new SerializationException("Payload is neither " + codec.type().getSimpleName()
+                    + " binary nor JSON", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dev.shubham.labs.kafka.codec;
+
+import java.nio.ByteBuffer;
+
+// Hand-written binary encoding of one Record type. The adapters frame every payload with a magic byte and the
+// codec's schema version; decode receives the version the payload was written with, so a codec can keep reading
+// older layouts after its version is bumped.
+public interface RecordCodec<T> {
+
+    Class<T> type();
+
+    byte version();
+
+    // Exact number of bytes encode will write for the value
+    int encodedSize(T value);
+
+    void encode(T value, ByteBuffer buffer);
+
+    T decode(byte version, ByteBuffer buffer);
+}
@@ -0,0 +1,77 @@
+package dev.shubham.labs.kafka.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+// Kafka Deserializer over a RecordCodec. Payloads without the codec's magic byte are read as JSON, so a
+// topic can switch from JsonSerializer while older records are still being consumed.
+public class RecordCodecDeserializer<T> implements Deserializer<T> {
+
+    private RecordCodec<T> codec;
+    private ObjectMapper jsonFallback;
+
+    // Used by Kafka, which configures the codec from VALUE_CODEC_CONFIG / KEY_CODEC_CONFIG
+    public RecordCodecDeserializer() {
+    }
+
+    public RecordCodecDeserializer(RecordCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (codec == null) {
+            codec = RecordCodecs.fromConfig(configs, isKey
+                    ? RecordCodecSerializer.KEY_CODEC_CONFIG
+                    : RecordCodecSerializer.VALUE_CODEC_CONFIG);
+        }
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return data == null ? null : deserialize(topic, null, ByteBuffer.wrap(data));
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        return deserialize(topic, data);
+    }
+
+    // Reads straight from the fetched buffer when the consumer hands one over
+    @Override
+    public T deserialize(String topic, Headers headers, ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.remaining() < RecordCodecSerializer.FRAME_SIZE || data.get(data.position()) != RecordCodecSerializer.MAGIC) {
+            return fromJson(data);
+        }
+        data.get();
+        byte version = data.get();
+        if (version > codec.version()) {
+            throw new SerializationException("Unsupported " + codec.type().getSimpleName() + " schema version "
+                    + version + ", this codec reads up to " + codec.version());
+        }
+        return codec.decode(version, data);
+    }
+
+    private T fromJson(ByteBuffer data) {
+        if (jsonFallback == null) {
+            jsonFallback = new ObjectMapper();
+        }
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        try {
+            return jsonFallback.readValue(bytes, codec.type());
+        } catch (IOException e) {
+            throw new SerializationException("Payload is neither " + codec.type().getSimpleName()
+                    + " binary nor JSON", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dev.shubham.labs.kafka.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+// Kafka Serializer over a RecordCodec. Payloads are framed as [MAGIC][schema version][codec bytes].
+public class RecordCodecSerializer<T> implements Serializer<T> {
+
+    public static final String VALUE_CODEC_CONFIG = "record.codec.value";
+    public static final String KEY_CODEC_CONFIG = "record.codec.key";
+    static final byte MAGIC = 0x7C;
+    static final int FRAME_SIZE = 2;
+
+    private RecordCodec<T> codec;
+
+    // Used by Kafka, which configures the codec from VALUE_CODEC_CONFIG / KEY_CODEC_CONFIG
+    public RecordCodecSerializer() {
+    }
+
+    public RecordCodecSerializer(RecordCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (codec == null) {
+            codec = RecordCodecs.fromConfig(configs, isKey ? KEY_CODEC_CONFIG : VALUE_CODEC_CONFIG);
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        if (data == null) {
+            return null;
+        }
+        byte[] bytes = new byte[FRAME_SIZE + codec.encodedSize(data)];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.put(MAGIC).put(codec.version());
+        codec.encode(data, buffer);
+        return bytes;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        return serialize(topic, data);
+    }
+}
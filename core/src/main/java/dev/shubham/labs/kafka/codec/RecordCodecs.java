@@ -0,0 +1,32 @@
+package dev.shubham.labs.kafka.codec;
+
+import org.apache.kafka.common.config.ConfigException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+
+final class RecordCodecs {
+
+    private RecordCodecs() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> RecordCodec<T> fromConfig(Map<String, ?> configs, String key) {
+        Object configured = configs.get(key);
+        if (configured == null) {
+            throw new ConfigException(key + " must name the RecordCodec to use");
+        }
+        if (configured instanceof RecordCodec<?> codec) {
+            return (RecordCodec<T>) codec;
+        }
+        try {
+            Class<?> type = configured instanceof Class<?> c
+                    ? c
+                    : ClassUtils.forName(configured.toString(), RecordCodecs.class.getClassLoader());
+            return (RecordCodec<T>) BeanUtils.instantiateClass(type);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new ConfigException(key, configured, "RecordCodec class not found");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package dev.shubham.labs.kafka.codec;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Bounded free list of PooledRecord holders. An empty pool creates a new holder rather than blocking the
+// consumer, and holders released into a full pool are left to the GC, so the pool only caps what is retained.
+public class RecordPool<T extends PooledRecord> {
+
+    private final ArrayBlockingQueue<T> free;
+    private final Supplier<T> factory;
+    private final LongAdder created = new LongAdder();
+
+    public RecordPool(Supplier<T> factory, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be at least 1");
+        this.factory = factory;
+        this.free = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public T acquire() {
+        T record = free.poll();
+        if (record == null) {
+            record = factory.get();
+            record.attach(this);
+            created.increment();
+        }
+        record.markInUse();
+        return record;
+    }
+
+    // Holders created so far; growing steadily means the pool is smaller than the records held in flight
+    public long getCreated() {
+        return created.sum();
+    }
+
+    public int getAvailable() {
+        return free.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    void recycle(PooledRecord record) {
+        free.offer((T) record);
+    }
+}
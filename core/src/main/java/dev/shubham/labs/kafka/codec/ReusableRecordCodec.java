@@ -0,0 +1,18 @@
+package dev.shubham.labs.kafka.codec;
+
+import java.nio.ByteBuffer;
+
+// RecordCodec that can decode into an existing holder, used by PooledRecordDeserializer
+public interface ReusableRecordCodec<T extends PooledRecord> extends RecordCodec<T> {
+
+    T newInstance();
+
+    void decodeInto(byte version, ByteBuffer buffer, T target);
+
+    @Override
+    default T decode(byte version, ByteBuffer buffer) {
+        T target = newInstance();
+        decodeInto(version, buffer, target);
+        return target;
+    }
+}
@@ -1,92 +1,277 @@
 package dev.shubham.labs.kafka.consumer;
 
+import dev.shubham.labs.kafka.xconsumer.dispatch.ListenerInvoker;
+import dev.shubham.labs.kafka.xconsumer.dispatch.PartitionOffsetTracker;
+import dev.shubham.labs.kafka.xconsumer.dispatch.RecordDispatcher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.*;
-import java.util.function.Consumer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
+// Hands records from the poll thread to a fixed set of workers through a queue. Instead of blocking the
+// poll thread when the queue fills up, the container's partitions are paused at the high-water mark and
+// resumed at the low-water mark, so polling (and the consumer's heartbeat to the group) never stalls.
 @Slf4j
-class BackpressureHandler<T> {
+public class BackpressureHandler<K, V> implements RecordDispatcher<K, V>, AutoCloseable {
+
+    private static final Duration OPEN_BREAKER_BACKOFF = Duration.ofMillis(500);
+
     private final int maxConcurrency;
-    private final Consumer<T> messageProcessor;
-    private final BlockingQueue<ConsumerRecord<String, T>> messageQueue;
+    private final int highWaterMark;
+    private final int lowWaterMark;
+    private final Duration drainTimeout;
+    // unbounded on purpose: pausing caps it at the high-water mark plus at most one poll per consumer
+    private final BlockingQueue<Task<K, V>> messageQueue = new LinkedBlockingQueue<>();
     private final ExecutorService processingExecutor;
-    private final List<CompletableFuture<Void>> workerFutures;
+    private final Map<TopicPartition, PartitionOffsetTracker> trackers = new ConcurrentHashMap<>();
+    // the flag and the container's pause state change together under pauseLock; only partitions this handler
+    // paused are resumed by it, so pauses requested elsewhere (e.g. a circuit breaker) are left alone
+    private final ReentrantLock pauseLock = new ReentrantLock();
+    private final AtomicBoolean paused = new AtomicBoolean();
+    private final Set<TopicPartition> pausedPartitions = new HashSet<>();
+    private final Timer waitTimer;
+    private volatile MessageListenerContainer container;
     private volatile boolean isRunning = false;
 
-    public BackpressureHandler(
-            int maxConcurrency,
-            int queueSize,
-            Consumer<T> messageProcessor
-    ) {
+    public BackpressureHandler(String name, int maxConcurrency, int highWaterMark, int lowWaterMark,
+                               MeterRegistry meterRegistry) {
+        this(name, maxConcurrency, highWaterMark, lowWaterMark, meterRegistry, Duration.ofSeconds(30));
+    }
+
+    public BackpressureHandler(String name, int maxConcurrency, int highWaterMark, int lowWaterMark,
+                               MeterRegistry meterRegistry, Duration drainTimeout) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        if (lowWaterMark < 0 || lowWaterMark >= highWaterMark)
+            throw new IllegalArgumentException("lowWaterMark must be between 0 and highWaterMark");
         this.maxConcurrency = maxConcurrency;
-        this.messageProcessor = messageProcessor;
-        this.messageQueue = new LinkedBlockingQueue<>(queueSize);
-        this.processingExecutor = Executors.newVirtualThreadPerTaskExecutor();
-        this.workerFutures = new ArrayList<>(maxConcurrency);
+        this.highWaterMark = highWaterMark;
+        this.lowWaterMark = lowWaterMark;
+        this.drainTimeout = drainTimeout;
+        this.processingExecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("kafka-backpressure-" + name + "-", 0).factory());
+
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+        Gauge.builder("kafka.consumer.backpressure.queue.depth", messageQueue, BlockingQueue::size)
+                .tag("consumer", name)
+                .description("Records waiting for a backpressure worker")
+                .register(registry);
+        Gauge.builder("kafka.consumer.backpressure.paused", paused, p -> p.get() ? 1 : 0)
+                .tag("consumer", name)
+                .register(registry);
+        this.waitTimer = Timer.builder("kafka.consumer.backpressure.wait")
+                .tag("consumer", name)
+                .description("Time records spend queued before a worker picks them up")
+                .register(registry);
     }
 
-    public void start() {
-        isRunning = true;
-        // Start worker threads (one per concurrency level)
-        for (int i = 0; i < maxConcurrency; i++) {
-            CompletableFuture<Void> workerFuture = CompletableFuture.runAsync(
-                    this::processMessages,
-                    processingExecutor
-            );
-            workerFutures.add(workerFuture);
+    @Override
+    public AcknowledgingMessageListener<K, V> decorate(AcknowledgingMessageListener<K, V> listener) {
+        start(listener);
+        return this::handle;
+    }
+
+    @Override
+    public void registerContainer(MessageListenerContainer container) {
+        this.container = container;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        // newly assigned partitions join the paused set while the queue is still above the low-water mark
+        MessageListenerContainer current = container;
+        if (current == null) {
+            return;
+        }
+        pauseLock.lock();
+        try {
+            if (paused.get()) {
+                pauseAll(current, partitions);
+            }
+        } finally {
+            pauseLock.unlock();
         }
     }
 
-    public void stop() {
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        // queued and running records of the revoked partitions finish first, so their acks make this commit
+        drain(partitions);
+        forget(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        drain(partitions);
+        forget(partitions);
+    }
+
+    public int getQueueDepth() {
+        return messageQueue.size();
+    }
+
+    public boolean isPaused() {
+        return paused.get();
+    }
+
+    @Override
+    public void close() {
+        drain(trackers.keySet());
         isRunning = false;
-        processingExecutor.shutdown();
+        processingExecutor.shutdownNow();
         try {
-            // Wait for ongoing processing to complete
-            if (!processingExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
-                processingExecutor.shutdownNow();
+            if (!processingExecutor.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Backpressure workers did not stop within {}", drainTimeout);
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            processingExecutor.shutdownNow();
         }
     }
 
-    public void handle(ConsumerRecord<String, T> record) {
-        try {
-            // If queue is full, this will block until space is available
-            messageQueue.put(record);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Failed to queue message", e);
+    private synchronized void start(AcknowledgingMessageListener<K, V> listener) {
+        if (isRunning) throw new IllegalStateException("BackpressureHandler is already attached to a listener");
+        isRunning = true;
+        for (int i = 0; i < maxConcurrency; i++) {
+            processingExecutor.execute(() -> processMessages(listener));
+        }
+    }
+
+    // Runs on the poll thread and never blocks it
+    private void handle(ConsumerRecord<K, V> record, Acknowledgment acknowledgment) {
+        PartitionOffsetTracker tracker = trackers.computeIfAbsent(
+                new TopicPartition(record.topic(), record.partition()), tp -> new PartitionOffsetTracker());
+        Acknowledgment tracked = tracker.track(record.offset(), acknowledgment);
+        messageQueue.add(new Task<>(record, tracked, tracker, System.nanoTime()));
+        if (messageQueue.size() >= highWaterMark) {
+            pause();
         }
     }
 
-    private void processMessages() {
+    private void processMessages(AcknowledgingMessageListener<K, V> listener) {
         while (isRunning) {
+            Task<K, V> task;
             try {
-                // Take message from queue (blocks if queue is empty)
-                ConsumerRecord<String, T> record = messageQueue.poll(100, TimeUnit.MILLISECONDS);
-                if (record != null) {
-                    processMessageWithRetry(record);
+                task = messageQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (paused.get() && messageQueue.size() <= lowWaterMark) {
+                resume();
+            }
+            waitTimer.record(System.nanoTime() - task.queuedAt(), TimeUnit.NANOSECONDS);
+            try {
+                // the record is only acked by the listener once processing (and journaling) is done. A worker
+                // waiting out an open breaker never holds up the poll thread: the queue just fills up and the
+                // partitions pause at the high-water mark.
+                while (!ListenerInvoker.invokeWithRetries(listener, task.record(), task.acknowledgment())) {
+                    Thread.sleep(OPEN_BREAKER_BACKOFF);
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 break;
+            } finally {
+                task.tracker().taskFinished();
+            }
+        }
+    }
+
+    // Both directions re-check the queue depth under the lock, so a pause and a resume racing each other
+    // settle on whatever the depth is once the second one runs
+    private void pause() {
+        MessageListenerContainer current = container;
+        if (current == null) {
+            return;
+        }
+        pauseLock.lock();
+        try {
+            if (paused.get() || messageQueue.size() < highWaterMark) {
+                return;
             }
+            paused.set(true);
+            log.info("Queue depth reached {}, pausing partitions", highWaterMark);
+            pauseAll(current, current.getAssignedPartitions());
+        } finally {
+            pauseLock.unlock();
         }
     }
 
-    private void processMessageWithRetry(ConsumerRecord<String, T> record) {
+    private void resume() {
+        MessageListenerContainer current = container;
+        if (current == null) {
+            return;
+        }
+        pauseLock.lock();
         try {
-            messageProcessor.accept(record.value());
-        } catch (Exception e) {
-            log.error("Failed to process message from topic: {}, partition: {}, offset: {}",
-                    record.topic(), record.partition(), record.offset(), e);
-            // Here you could add retry logic or send to DLQ
+            if (!paused.get() || messageQueue.size() > lowWaterMark) {
+                return;
+            }
+            paused.set(false);
+            log.info("Queue depth dropped to {}, resuming partitions", lowWaterMark);
+            pausedPartitions.forEach(current::resumePartition);
+            pausedPartitions.clear();
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    // Must hold pauseLock
+    private void pauseAll(MessageListenerContainer current, Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            if (!current.isPartitionPauseRequested(partition)) {
+                current.pausePartition(partition);
+                pausedPartitions.add(partition);
+            }
         }
     }
-}
\ No newline at end of file
+
+    private void forget(Collection<TopicPartition> partitions) {
+        pauseLock.lock();
+        try {
+            pausedPartitions.removeAll(partitions);
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    private void drain(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions.toArray(TopicPartition[]::new)) {
+            PartitionOffsetTracker tracker = trackers.remove(partition);
+            if (tracker == null) {
+                continue;
+            }
+            try {
+                if (!tracker.awaitIdle(drainTimeout)) {
+                    log.warn("Timed out draining queued records for partition {}", partition);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private record Task<K, V>(ConsumerRecord<K, V> record, Acknowledgment acknowledgment,
+                              PartitionOffsetTracker tracker, long queuedAt) {
+    }
+}
@@ -1,25 +1,16 @@
 package dev.shubham.labs.kafka.consumer;
 
 import io.opentelemetry.api.GlobalOpenTelemetry;
-import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
-import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
-import io.opentelemetry.context.propagation.ContextPropagators;
-import io.opentelemetry.context.propagation.TextMapGetter;
-import io.opentelemetry.context.propagation.TextMapPropagator;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.common.header.Header;
-import org.apache.kafka.common.header.Headers;
 import org.springframework.kafka.listener.RecordInterceptor;
 
-import java.util.Arrays;
-
 public class KafkaConsumerInterceptor<K, V> implements RecordInterceptor<K, V> {
 
     private static final Tracer tracer = GlobalOpenTelemetry.getTracer("kafka-consumer");
@@ -49,10 +40,12 @@ public class KafkaConsumerInterceptor<K, V> implements RecordInterceptor<K, V> {
 
         // Make the span current for downstream processing
         try (Scope scope = span.makeCurrent()) {
-            // Add Kafka-specific attributes
-            span.setAttribute("messaging.kafka.topic", record.topic());
-            span.setAttribute("messaging.kafka.partition", record.partition());
-            span.setAttribute("messaging.kafka.offset", record.offset());
+            // Add Kafka-specific attributes, only when the span is sampled
+            if (span.isRecording()) {
+                span.setAttribute("messaging.kafka.topic", record.topic());
+                span.setAttribute("messaging.kafka.partition", record.partition());
+                span.setAttribute("messaging.kafka.offset", record.offset());
+            }
 
             // Store the span in ThreadLocal for later use
             activeSpan.set(span);
@@ -98,23 +91,6 @@ public class KafkaConsumerInterceptor<K, V> implements RecordInterceptor<K, V> {
     }
 
     private Context extractContextFromHeaders(ConsumerRecord<K, V> record) {
-        ContextPropagators propagators =
-                ContextPropagators.create(
-                        TextMapPropagator.composite(
-                                W3CTraceContextPropagator.getInstance(), W3CBaggagePropagator.getInstance()));
-        return propagators.getTextMapPropagator().extract(Context.current(), record.headers(), new KafkaHeadersGetter());
-    }
-
-    private static class KafkaHeadersGetter implements TextMapGetter<Headers> {
-        @Override
-        public Iterable<String> keys(Headers headers) {
-            return Arrays.stream(headers.toArray()).map(Header::key).toList();
-        }
-
-        @Override
-        public String get(Headers headers, String key) {
-            Header header = headers.lastHeader(key);
-            return header != null ? new String(header.value()) : null;
-        }
+        return KafkaTraceContext.extract(record.headers());
     }
 }
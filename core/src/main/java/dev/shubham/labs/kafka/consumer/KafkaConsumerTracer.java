@@ -3,27 +3,19 @@ package dev.shubham.labs.kafka.consumer;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.baggage.Baggage;
-import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
-import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
-import io.opentelemetry.context.propagation.TextMapGetter;
-import io.opentelemetry.context.propagation.TextMapPropagator;
 import io.opentelemetry.semconv.SemanticAttributes;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-
 @Slf4j
 public class KafkaConsumerTracer {
     private final String consumerName;
@@ -31,8 +23,6 @@ public class KafkaConsumerTracer {
 
     // Initialize tracer once
     private final Tracer tracer;
-    // Initialize propagator once
-    private final TextMapPropagator propagator;
     private final CircuitBreaker circuitBreaker;
 
     public KafkaConsumerTracer(String consumerName, OpenTelemetry openTelemetry, CircuitBreaker circuitBreaker) {
@@ -40,11 +30,6 @@ public class KafkaConsumerTracer {
         this.openTelemetry = openTelemetry;
         this.circuitBreaker = circuitBreaker;
         this.tracer = openTelemetry.getTracer(consumerName);
-        // Create composite propagator with both trace context and baggage
-        this.propagator = TextMapPropagator.composite(
-                W3CTraceContextPropagator.getInstance(),
-                W3CBaggagePropagator.getInstance()
-        );
     }
 
     public <K, V> void tracedOperation(ConsumerRecord<K, V> record, Runnable operation) {
@@ -66,18 +51,22 @@ public class KafkaConsumerTracer {
     }
 
     private Context extractContext(Headers headers) {
-        return propagator.extract(Context.current(), headers, new KafkaHeadersGetter());
+        return KafkaTraceContext.extract(headers);
     }
 
     private <K, V> Span createSpan(ConsumerRecord<K, V> record, Context parentContext) {
-        return tracer.spanBuilder("kafka.message.process.otel")
+        Span span = tracer.spanBuilder("kafka.message.process.otel")
                 .setParent(parentContext)
                 .setSpanKind(SpanKind.CONSUMER)
-                .setAllAttributes(createAttributes(record))
                 .startSpan();
+        // unsampled spans drop their attributes anyway, so don't build them
+        if (span.isRecording()) {
+            span.setAllAttributes(createAttributes(record, parentContext));
+        }
+        return span;
     }
 
-    private <K, V> Attributes createAttributes(ConsumerRecord<K, V> record) {
+    private <K, V> Attributes createAttributes(ConsumerRecord<K, V> record, Context parentContext) {
         AttributesBuilder builder = Attributes.builder()
                 .put(SemanticAttributes.MESSAGING_SYSTEM, "kafka")
                 .put(SemanticAttributes.MESSAGING_OPERATION, "receive")
@@ -92,8 +81,8 @@ public class KafkaConsumerTracer {
             builder.put("messaging.kafka.message.key", record.key().toString());
         }
 
-        // Extract and add baggage from context
-        Baggage baggage = Baggage.fromContext(Context.current());
+        // Add baggage propagated with the record
+        Baggage baggage = Baggage.fromContext(parentContext);
         baggage.forEach((key, value) ->
                 builder.put("baggage." + key, value.getValue()));
 
@@ -114,20 +103,4 @@ public class KafkaConsumerTracer {
                 span.getSpanContext().getSpanId(),
                 e.getMessage());
     }
-
-    // Getter for Headers specifically
-    private static class KafkaHeadersGetter implements TextMapGetter<Headers> {
-        @Override
-        public Iterable<String> keys(Headers headers) {
-            return Arrays.stream(headers.toArray())
-                    .map(Header::key)
-                    .toList();
-        }
-
-        @Override
-        public String get(Headers headers, String key) {
-            Header header = headers.lastHeader(key);
-            return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
-        }
-    }
 }
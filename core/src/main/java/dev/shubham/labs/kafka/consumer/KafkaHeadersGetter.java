@@ -0,0 +1,41 @@
+package dev.shubham.labs.kafka.consumer;
+
+import io.opentelemetry.context.propagation.TextMapGetter;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+// Shared stateless getter for reading propagation fields from record headers. get() is a direct lastHeader
+// lookup; keys() walks the headers lazily and is only used by propagators that scan all fields.
+public enum KafkaHeadersGetter implements TextMapGetter<Headers> {
+
+    INSTANCE;
+
+    @Override
+    public Iterable<String> keys(Headers headers) {
+        return () -> new Iterator<>() {
+            private final Iterator<Header> delegate = headers.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return delegate.next().key();
+            }
+        };
+    }
+
+    @Override
+    public String get(Headers headers, String key) {
+        if (headers == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(key);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
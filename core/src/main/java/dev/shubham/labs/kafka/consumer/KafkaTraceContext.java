@@ -0,0 +1,35 @@
+package dev.shubham.labs.kafka.consumer;
+
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import org.apache.kafka.common.header.Headers;
+
+// Extracts the W3C trace context and baggage of a consumed record with one shared propagator. Records
+// carrying neither header skip the propagator entirely.
+public final class KafkaTraceContext {
+
+    private static final String TRACEPARENT = "traceparent";
+    private static final String BAGGAGE = "baggage";
+    private static final TextMapPropagator PROPAGATOR = TextMapPropagator.composite(
+            W3CTraceContextPropagator.getInstance(), W3CBaggagePropagator.getInstance());
+
+    private KafkaTraceContext() {
+    }
+
+    public static Context extract(Headers headers) {
+        return extract(Context.current(), headers);
+    }
+
+    public static Context extract(Context parent, Headers headers) {
+        if (headers == null || (headers.lastHeader(TRACEPARENT) == null && headers.lastHeader(BAGGAGE) == null)) {
+            return parent;
+        }
+        return PROPAGATOR.extract(parent, headers, KafkaHeadersGetter.INSTANCE);
+    }
+
+    public static TextMapPropagator propagator() {
+        return PROPAGATOR;
+    }
+}
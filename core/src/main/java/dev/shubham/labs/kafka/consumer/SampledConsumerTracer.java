@@ -0,0 +1,152 @@
+package dev.shubham.labs.kafka.consumer;
+
+import dev.shubham.labs.kafka.KafkaConsumerProps;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.semconv.SemanticAttributes;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One span per consumed record, sampled per topic at a fixed rate. Records that miss the rate are processed
+// untraced but timed, and a span is recorded after the fact for the ones that fail or exceed slowThreshold, so
+// errors and latency outliers are always traced while tracing cost stays flat as throughput grows. Listeners
+// that handle a failure themselves instead of throwing report it through failed(), on the processing thread.
+public class SampledConsumerTracer {
+
+    private static final String SAMPLING_REASON = "kafka.sampling.reason";
+
+    private final String consumerGroup;
+    private final Tracer tracer;
+    private final long emissionIntervalNanos;
+    private final long slowThresholdNanos;
+    private final Map<String, RateLimit> rateLimits = new ConcurrentHashMap<>();
+    private final ThreadLocal<Throwable> handledFailure = new ThreadLocal<>();
+
+    public SampledConsumerTracer(String consumerName, String consumerGroup, OpenTelemetry openTelemetry,
+                                 KafkaConsumerProps.Tracing props) {
+        if (props.getTracesPerSecond() <= 0) throw new IllegalArgumentException("tracesPerSecond must be positive");
+        this.consumerGroup = consumerGroup;
+        this.tracer = openTelemetry.getTracer(consumerName);
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / props.getTracesPerSecond());
+        this.slowThresholdNanos = props.getSlowThreshold().toNanos();
+    }
+
+    public <K, V> AcknowledgingMessageListener<K, V> decorate(AcknowledgingMessageListener<K, V> listener) {
+        return (record, acknowledgment) -> {
+            Context parent = KafkaTraceContext.extract(Context.root(), record.headers());
+            if (rateLimits.computeIfAbsent(record.topic(), topic -> new RateLimit()).tryAcquire()) {
+                traced(record, parent, () -> listener.onMessage(record, acknowledgment));
+            } else {
+                untraced(record, parent, () -> listener.onMessage(record, acknowledgment));
+            }
+        };
+    }
+
+    // Called by the decorated listener when it marks a record failed without rethrowing
+    public void failed(ConsumerRecord<?, ?> record, Throwable error) {
+        handledFailure.set(error);
+    }
+
+    private Throwable takeHandledFailure() {
+        Throwable error = handledFailure.get();
+        handledFailure.remove();
+        return error;
+    }
+
+    private void traced(ConsumerRecord<?, ?> record, Context parent, Runnable processing) {
+        Span span = spanBuilder(record, parent).startSpan();
+        if (span.isRecording()) {
+            span.setAttribute(SAMPLING_REASON, "rate");
+        }
+        try (Scope scope = span.makeCurrent()) {
+            processing.run();
+            Throwable handled = takeHandledFailure();
+            if (handled != null) {
+                span.recordException(handled);
+                span.setStatus(StatusCode.ERROR, handled.getMessage());
+            }
+        } catch (RuntimeException | Error e) {
+            takeHandledFailure();
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private void untraced(ConsumerRecord<?, ?> record, Context parent, Runnable processing) {
+        Instant start = Instant.now();
+        long startNanos = System.nanoTime();
+        try {
+            processing.run();
+        } catch (RuntimeException | Error e) {
+            takeHandledFailure();
+            errorSpan(record, parent, start, startNanos, e);
+            throw e;
+        }
+        Throwable handled = takeHandledFailure();
+        if (handled != null) {
+            errorSpan(record, parent, start, startNanos, handled);
+            return;
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        if (elapsed >= slowThresholdNanos) {
+            Span span = spanBuilder(record, parent).setStartTimestamp(start).startSpan();
+            span.setAttribute(SAMPLING_REASON, "slow");
+            span.end(start.plusNanos(elapsed));
+        }
+    }
+
+    private void errorSpan(ConsumerRecord<?, ?> record, Context parent, Instant start, long startNanos, Throwable e) {
+        Span span = spanBuilder(record, parent).setStartTimestamp(start).startSpan();
+        span.setAttribute(SAMPLING_REASON, "error");
+        span.recordException(e);
+        span.setStatus(StatusCode.ERROR, e.getMessage());
+        span.end(start.plusNanos(System.nanoTime() - startNanos));
+    }
+
+    private SpanBuilder spanBuilder(ConsumerRecord<?, ?> record, Context parent) {
+        return tracer.spanBuilder(record.topic() + " process")
+                .setParent(parent)
+                .setSpanKind(SpanKind.CONSUMER)
+                .setAttribute(SemanticAttributes.MESSAGING_SYSTEM, "kafka")
+                .setAttribute(SemanticAttributes.MESSAGING_OPERATION, "process")
+                .setAttribute(SemanticAttributes.MESSAGING_DESTINATION_NAME, record.topic())
+                .setAttribute(SemanticAttributes.MESSAGING_KAFKA_PARTITION, (long) record.partition())
+                .setAttribute(SemanticAttributes.MESSAGING_KAFKA_MESSAGE_OFFSET, record.offset())
+                .setAttribute(SemanticAttributes.MESSAGING_KAFKA_CONSUMER_GROUP, consumerGroup);
+    }
+
+    // GCRA: admits one trace per emission interval with a burst of one second's worth
+    private class RateLimit {
+        private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+
+        boolean tryAcquire() {
+            long burstNanos = Math.max(0, TimeUnit.SECONDS.toNanos(1) - emissionIntervalNanos);
+            while (true) {
+                long now = System.nanoTime();
+                long tat = theoreticalArrival.get();
+                long next = Math.max(tat, now);
+                if (next - now > burstNanos) {
+                    return false;
+                }
+                if (theoreticalArrival.compareAndSet(tat, next + emissionIntervalNanos)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
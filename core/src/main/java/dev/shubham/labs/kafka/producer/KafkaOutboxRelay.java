@@ -0,0 +1,225 @@
+package dev.shubham.labs.kafka.producer;
+
+import dev.shubham.labs.kafka.KafkaProducerProps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains kafka_outbox rows of one topic to the broker ordered by writing transaction, then id. Ids are handed
+// out before commit, so a row is only relayed once every transaction older than the oldest one still running
+// has finished; a row that becomes visible later can then never sort before one already sent. A long-running
+// transaction anywhere in the database holds the relay back until it ends.
+//
+// A session-level advisory lock per topic keeps a single relay active across instances. It is held on a
+// connection that sits idle outside any transaction while the batch is sent, so the relay itself never holds
+// back the snapshot xmin other topics wait on; the rows are read and deleted in short transactions of their own.
+// Every row the broker acknowledged is deleted. A row that failed is sent again on the next poll, after the
+// rows that followed it in its batch, so consumers can see it out of order (and, if the delete fails, see
+// records twice) and must tolerate both.
+@Slf4j
+public class KafkaOutboxRelay implements SmartLifecycle {
+
+    private static final String LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext(?))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext(?))";
+    private static final String SELECT_SQL = """
+            SELECT id, message_key, payload, headers, created_at
+            FROM kafka_outbox
+            WHERE topic = ?
+              AND txid < pg_snapshot_xmin(pg_current_snapshot())
+            ORDER BY txid, id
+            LIMIT ?
+            """;
+    private static final String DELETE_SQL = "DELETE FROM kafka_outbox WHERE id = ?";
+
+    private final String topic;
+    private final KafkaProducerProps.Outbox props;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<byte[], byte[]> kafkaTemplate;
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+    private final Counter relayed;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public KafkaOutboxRelay(KafkaProducerProps kafkaProperties, JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this(kafkaProperties.getTopic(), kafkaProperties.getOutbox(), jdbcTemplate, transactionManager,
+                new KafkaTemplate<>(producerFactory(kafkaProperties)), meterRegistry);
+    }
+
+    KafkaOutboxRelay(String topic, KafkaProducerProps.Outbox props, JdbcTemplate jdbcTemplate,
+                     PlatformTransactionManager transactionManager, KafkaTemplate<byte[], byte[]> kafkaTemplate,
+                     MeterRegistry meterRegistry) {
+        this.topic = topic;
+        this.props = props;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kafkaTemplate = kafkaTemplate;
+
+        Gauge.builder("kafka.outbox.lag", this, KafkaOutboxRelay::lagSeconds)
+                .tag("topic", topic)
+                .description("Age in seconds of the oldest record waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.relayed = Counter.builder("kafka.outbox.relayed")
+                .tag("topic", topic)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("kafka-outbox-relay-" + topic).factory());
+        scheduler.scheduleWithFixedDelay(this::drain, 0, props.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(props.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (kafkaTemplate.getProducerFactory() instanceof DefaultKafkaProducerFactory<byte[], byte[]> factory) {
+            factory.destroy();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return props.isEnabled();
+    }
+
+    private void drain() {
+        try {
+            // keep going while full batches come back, then wait for the next poll
+            while (running && relayBatch() == props.getBatchSize()) {
+                log.debug("Outbox for topic {} still has a backlog", topic);
+            }
+        } catch (Exception e) {
+            log.error("Failed to relay outbox for topic {}", topic, e);
+        }
+    }
+
+    int relayBatch() {
+        Integer count = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            if (!advisoryLock(connection, LOCK_SQL)) {
+                return 0;
+            }
+            try {
+                return relayLocked();
+            } finally {
+                advisoryLock(connection, UNLOCK_SQL);
+            }
+        });
+        return count != null ? count : 0;
+    }
+
+    private int relayLocked() {
+        List<OutboxRow> rows = jdbcTemplate.query(SELECT_SQL, (rs, i) -> new OutboxRow(rs.getLong("id"),
+                rs.getBytes("message_key"), rs.getBytes("payload"), rs.getBytes("headers"),
+                rs.getTimestamp("created_at")), topic, props.getBatchSize());
+        oldestPendingMillis.set(rows.isEmpty() ? 0 : rows.getFirst().createdAt().getTime());
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Long> sent = send(rows);
+        if (!sent.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(DELETE_SQL, sent.stream().map(id -> new Object[]{id}).toList()));
+            relayed.increment(sent.size());
+        }
+        // a short count ends the drain loop, so failed rows wait for the next poll
+        return sent.size();
+    }
+
+    private List<Long> send(List<OutboxRow> rows) {
+        List<CompletableFuture<SendResult<byte[], byte[]>>> futures = new ArrayList<>(rows.size());
+        for (OutboxRow row : rows) {
+            futures.add(kafkaTemplate.send(new ProducerRecord<>(topic, null, row.key(), row.payload(),
+                    OutboxHeaders.decode(row.headers()))));
+        }
+        kafkaTemplate.flush();
+        long deadline = System.nanoTime() + props.getSendTimeout().toNanos();
+        List<Long> sent = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sent.add(rows.get(i).id());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Failed to relay outbox record {} for topic {}, retrying it on the next poll",
+                        rows.get(i).id(), topic, e);
+            }
+        }
+        return sent;
+    }
+
+    private boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, topic);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static DefaultKafkaProducerFactory<byte[], byte[]> producerFactory(KafkaProducerProps kafkaProperties) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapServers());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        // idempotence keeps the per-partition order of a batch through producer retries
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, 256 * 1024);
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    private double lagSeconds() {
+        long oldest = oldestPendingMillis.get();
+        return oldest == 0 ? 0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    record OutboxRow(long id, byte[] key, byte[] payload, byte[] headers, Timestamp createdAt) {
+    }
+}
@@ -0,0 +1,87 @@
+package dev.shubham.labs.kafka.producer;
+
+import dev.shubham.labs.kafka.KafkaProducerProps;
+import dev.shubham.labs.kafka.Record;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.DefaultKafkaHeaderMapper;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Writes records to kafka_outbox instead of the broker. The insert joins the caller's transaction when there
+// is one, so the record is published if and only if the caller's changes commit; KafkaOutboxRelay sends it.
+@Slf4j
+public class KafkaOutboxService<K, V extends Record<K>> {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO kafka_outbox (topic, message_key, payload, headers, created_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private final String topic;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final TextMapPropagator propagator;
+    private final DefaultKafkaHeaderMapper headerMapper = new DefaultKafkaHeaderMapper();
+
+    public KafkaOutboxService(KafkaProducerProps kafkaProperties, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager, Serializer<K> keySerializer,
+                              Serializer<V> valueSerializer, OpenTelemetry openTelemetry) {
+        this.topic = kafkaProperties.getTopic();
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.propagator = openTelemetry.getPropagators().getTextMapPropagator();
+    }
+
+    public void send(V value) {
+        sendAll(List.of(value), Map.of());
+    }
+
+    public void send(V value, Map<String, Object> header) {
+        sendAll(List.of(value), header);
+    }
+
+    public void sendAll(Collection<V> values) {
+        sendAll(values, Map.of());
+    }
+
+    public void sendAll(Collection<V> values, Map<String, Object> header) {
+        var now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(values.size());
+        for (V value : values) {
+            Headers headers = new RecordHeaders();
+            if (!header.isEmpty()) {
+                headerMapper.fromHeaders(new MessageHeaders(header), headers);
+            }
+            // the trace context is captured now, so the consumer's span links to the request that wrote the row
+            propagator.inject(Context.current(), headers,
+                    (carrier, key, val) -> carrier.add(key, val.getBytes(StandardCharsets.UTF_8)));
+            byte[] payload = valueSerializer.serialize(topic, headers, value);
+            byte[] key = keySerializer.serialize(topic, headers, value.key());
+            rows.add(new Object[]{topic, key, payload, OutboxHeaders.encode(headers), now});
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+        log.debug("Wrote {} records to the outbox for topic {}", rows.size(), topic);
+    }
+}
@@ -2,6 +2,7 @@ package dev.shubham.labs.kafka.producer;
 
 import dev.shubham.labs.kafka.KafkaProducerProps;
 import dev.shubham.labs.kafka.Record;
+import dev.shubham.labs.kafka.codec.RecordCodecSerializer;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.observation.ObservationRegistry;
 import io.opentelemetry.api.OpenTelemetry;
@@ -47,6 +48,10 @@ public abstract class KafkaProducerConfig<K, V extends Record<K>> {
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaProperties.getBootstrapServers());
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, keySerializer);
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, valueSerializer);
+        if (kafkaProperties.getValueCodec() != null) {
+            props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, RecordCodecSerializer.class);
+            props.put(RecordCodecSerializer.VALUE_CODEC_CONFIG, kafkaProperties.getValueCodec());
+        }
         props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, kafkaProperties.isIdempotence());
         props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
 //        props.put(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG, TracingProducerInterceptor.class.getName());
@@ -71,5 +76,15 @@ public abstract class KafkaProducerConfig<K, V extends Record<K>> {
 
     }
 
+    // For callers that build their own template, e.g. benchmarks running against a MockProducer
+    protected KafkaProducerConfig(KafkaTemplate<K, V> kafkaTemplate, ObservationRegistry registry,
+                                  ExecutorService kafkaProducerExecutor, Tracer tracer) {
+        this.kafkaTemplate = Objects.requireNonNull(kafkaTemplate, "KafkaTemplate must not be null");
+        this.registry = registry;
+        this.kafkaProducerExecutor = kafkaProducerExecutor;
+        this.tracer = tracer;
+        this.otelCustomizer = null;
+    }
+
 
 }
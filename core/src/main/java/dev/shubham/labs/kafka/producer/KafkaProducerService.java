@@ -3,7 +3,10 @@ package dev.shubham.labs.kafka.producer;
 import dev.shubham.labs.kafka.Record;
 import org.springframework.kafka.support.SendResult;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 
 public interface KafkaProducerService<K, V extends Record<K>> {
@@ -16,4 +19,9 @@ public interface KafkaProducerService<K, V extends Record<K>> {
 
     void send(V value, Map<String, Object> header, BiConsumer<SendResult<K, V>, ? super Throwable> action);
 
+    // Completes once every record has been acknowledged or failed, with one outcome per record in input order
+    CompletableFuture<List<SendOutcome<K, V>>> sendAll(Collection<V> values);
+
+    CompletableFuture<List<SendOutcome<K, V>>> sendAll(Collection<V> values, Map<String, Object> header);
+
 }
@@ -6,23 +6,29 @@ import io.micrometer.context.ContextSnapshotFactory;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.observation.ObservationRegistry;
 import io.opentelemetry.api.OpenTelemetry;
-import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.Tracer;
-import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.Context;
-import io.opentelemetry.context.propagation.ContextPropagators;
-import io.opentelemetry.context.propagation.TextMapPropagator;
 import io.opentelemetry.context.propagation.TextMapSetter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.DefaultKafkaHeaderMapper;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.kafka.support.SendResult;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.MessageBuilder;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.function.BiConsumer;
 
@@ -30,6 +36,10 @@ import java.util.function.BiConsumer;
 public abstract class KafkaProducerServiceImpl<K, V extends Record<K>> extends KafkaProducerConfig<K, V>
         implements KafkaProducerService<K, V> {
 
+    private final ContextSnapshotFactory snapshotFactory = ContextSnapshotFactory.builder().build();
+    private final DefaultKafkaHeaderMapper headerMapper = new DefaultKafkaHeaderMapper();
+    private final boolean fastPath;
+
     private final BiConsumer<SendResult<K, V>, ? super Throwable> defaultAction = (result, ex) -> {
         // registry.setCurrentObservationScope(observation.openScope());
         if (ex == null) {
@@ -44,11 +54,23 @@ public abstract class KafkaProducerServiceImpl<K, V extends Record<K>> extends K
                                        MeterRegistry meterRegistry, ObservationRegistry registry, ExecutorService kafkaProducerExecutor, Tracer tracer,
                                        DefaultKafkaProducerFactoryCustomizer otelCustomizer, OpenTelemetry openTelemetry) {
         super(kafkaProperties, serializer, deSerializer, meterRegistry, registry, kafkaProducerExecutor, tracer,otelCustomizer,openTelemetry);
+        this.fastPath = kafkaProperties.isFastPath();
+    }
+
+    protected KafkaProducerServiceImpl(KafkaTemplate<K, V> kafkaTemplate, ObservationRegistry registry,
+                                       ExecutorService kafkaProducerExecutor, Tracer tracer) {
+        this(kafkaTemplate, registry, kafkaProducerExecutor, tracer, false);
+    }
+
+    protected KafkaProducerServiceImpl(KafkaTemplate<K, V> kafkaTemplate, ObservationRegistry registry,
+                                       ExecutorService kafkaProducerExecutor, Tracer tracer, boolean fastPath) {
+        super(kafkaTemplate, registry, kafkaProducerExecutor, tracer);
+        this.fastPath = fastPath;
     }
 
     @Override
     public void send(V value) {
-        send(value, new HashMap<>(), defaultAction);
+        send(value, Map.of(), defaultAction);
     }
 
     @Override
@@ -58,7 +80,7 @@ public abstract class KafkaProducerServiceImpl<K, V extends Record<K>> extends K
 
     @Override
     public void send(V value, BiConsumer<SendResult<K, V>, ? super Throwable> action) {
-        send(value, new HashMap<>(), action);
+        send(value, Map.of(), action);
     }
 
     @Override
@@ -76,23 +98,8 @@ public abstract class KafkaProducerServiceImpl<K, V extends Record<K>> extends K
             // Inject trace context into Kafka headers
 //            Context currentContext = Context.current().with(span);
 
-            var mutableHeaders = generateHeaders(value, header);
-
-            ContextPropagators propagators =
-                    ContextPropagators.create(
-                            TextMapPropagator.composite(
-                                    W3CTraceContextPropagator.getInstance(), W3CBaggagePropagator.getInstance()));
-
-//            propagators.getTextMapPropagator().inject(currentContext, mutableHeaders, new KafkaHeaderSetter());
-
-            // var observation = registry.getCurrentObservation();
-            var message = MessageBuilder.withPayload(value).copyHeaders(mutableHeaders)
-                    .build();
-
-            var future = this.kafkaTemplate
-                    .send(message);
-            future.whenCompleteAsync(action,
-                    ContextSnapshotFactory.builder().build().captureAll().wrapExecutor(kafkaProducerExecutor));
+            var future = fastPath ? sendRecord(value, header) : sendMessage(value, header);
+            future.whenCompleteAsync(action, snapshotFactory.captureAll().wrapExecutor(kafkaProducerExecutor));
 
         } catch (Exception e) {
 //            span.recordException(e);
@@ -105,8 +112,62 @@ public abstract class KafkaProducerServiceImpl<K, V extends Record<K>> extends K
 
     }
 
+    private CompletableFuture<SendResult<K, V>> sendMessage(V value, Map<String, Object> header) {
+        var mutableHeaders = generateHeaders(value, header);
+        // var observation = registry.getCurrentObservation();
+        var message = MessageBuilder.withPayload(value).copyHeaders(mutableHeaders)
+                .build();
+        return this.kafkaTemplate.send(message);
+    }
+
+    // Skips the Message conversion layer: the record is built directly and custom headers are mapped straight
+    // into Kafka headers, so a send without custom headers allocates little beyond the record itself
+    private CompletableFuture<SendResult<K, V>> sendRecord(V value, Map<String, Object> header) {
+        var headers = header.isEmpty() ? new RecordHeaders() : new RecordHeaders(toKafkaHeaders(header));
+        return this.kafkaTemplate.send(new ProducerRecord<>(kafkaTemplate.getDefaultTopic(), null, value.key(), value, headers));
+    }
+
+    @Override
+    public CompletableFuture<List<SendOutcome<K, V>>> sendAll(Collection<V> values) {
+        return sendAll(values, Map.of());
+    }
+
+    @Override
+    public CompletableFuture<List<SendOutcome<K, V>>> sendAll(Collection<V> values, Map<String, Object> header) {
+        // headers are mapped and the context captured once for the whole batch
+        Header[] sharedHeaders = toKafkaHeaders(header);
+        var executor = snapshotFactory.captureAll().wrapExecutor(kafkaProducerExecutor);
+        var topic = kafkaTemplate.getDefaultTopic();
+        List<CompletableFuture<SendOutcome<K, V>>> outcomes = new ArrayList<>(values.size());
+        for (V value : values) {
+            // the producer marks a record's headers read-only, so each record needs its own container
+            var record = new ProducerRecord<K, V>(topic, null, value.key(), value, new RecordHeaders(sharedHeaders));
+            CompletableFuture<SendOutcome<K, V>> outcome;
+            try {
+                outcome = kafkaTemplate.send(record)
+                        .handle((result, ex) -> new SendOutcome<>(value, result, ex));
+            } catch (Exception e) {
+                log.error("Unable to send message=[{}] due to : {}", value, e.getMessage());
+                outcome = CompletableFuture.completedFuture(new SendOutcome<>(value, null, e));
+            }
+            outcomes.add(outcome);
+        }
+        kafkaTemplate.flush();
+        return CompletableFuture.allOf(outcomes.toArray(CompletableFuture[]::new))
+                .thenApplyAsync(ignored -> outcomes.stream().map(CompletableFuture::join).toList(), executor);
+    }
+
+    Header[] toKafkaHeaders(Map<String, Object> customHeaders) {
+        if (customHeaders.isEmpty()) {
+            return new Header[0];
+        }
+        var headers = new RecordHeaders();
+        headerMapper.fromHeaders(new MessageHeaders(customHeaders), headers);
+        return headers.toArray();
+    }
+
     Map<String, Object> generateHeaders(V value, Map<String, Object> customHeaders) {
-        var header = new HashMap<String, Object>();
+        var header = HashMap.<String, Object>newHashMap(customHeaders.size() + 1);
         header.put(KafkaHeaders.KEY, value.key());
 //        header.put("X-B3-TraceId", Span.current().getSpanContext().getTraceId());
 //        header.put("X-B3-SpanId", Span.current().getSpanContext().getSpanId());
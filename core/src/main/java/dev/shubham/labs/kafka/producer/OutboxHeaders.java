@@ -0,0 +1,60 @@
+package dev.shubham.labs.kafka.producer;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Length-prefixed binary form of Kafka headers for the kafka_outbox.headers column
+final class OutboxHeaders {
+
+    private OutboxHeaders() {
+    }
+
+    static byte[] encode(Headers headers) {
+        Header[] all = headers.toArray();
+        if (all.length == 0) {
+            return null;
+        }
+        int size = Integer.BYTES;
+        byte[][] keys = new byte[all.length][];
+        for (int i = 0; i < all.length; i++) {
+            keys[i] = all[i].key().getBytes(StandardCharsets.UTF_8);
+            size += 2 * Integer.BYTES + keys[i].length + (all[i].value() != null ? all[i].value().length : 0);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(all.length);
+        for (int i = 0; i < all.length; i++) {
+            buffer.putInt(keys[i].length).put(keys[i]);
+            byte[] value = all[i].value();
+            buffer.putInt(value != null ? value.length : -1);
+            if (value != null) {
+                buffer.put(value);
+            }
+        }
+        return buffer.array();
+    }
+
+    static Headers decode(byte[] encoded) {
+        var headers = new RecordHeaders();
+        if (encoded == null) {
+            return headers;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            byte[] key = new byte[buffer.getInt()];
+            buffer.get(key);
+            int length = buffer.getInt();
+            byte[] value = null;
+            if (length >= 0) {
+                value = new byte[length];
+                buffer.get(value);
+            }
+            headers.add(new String(key, StandardCharsets.UTF_8), value);
+        }
+        return headers;
+    }
+}
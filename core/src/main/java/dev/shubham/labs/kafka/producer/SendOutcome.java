@@ -0,0 +1,11 @@
+package dev.shubham.labs.kafka.producer;
+
+import org.springframework.kafka.support.SendResult;
+
+// Result of one record in a batch send: the broker's SendResult on success, the failure otherwise
+public record SendOutcome<K, V>(V value, SendResult<K, V> result, Throwable error) {
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,113 @@
+package dev.shubham.labs.kafka.xconsumer;
+
+import dev.shubham.labs.kafka.KafkaConsumerProps;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Per-stage timers for CustomizedMessageListener, tagged by topic, consumer and stage:
+// save (journal the record), state.processing and state.completed (the event state updates before and after
+// processing), resilience (the whole ResilienceStrategy call, including retries), process (the message processor)
+// and ack. Every stage is recorded at most once per record; process and state.completed time the attempt that
+// finished last. Records are also counted by outcome, acked or failed.
+public class ConsumerPipelineMetrics {
+
+    static final Stages NOOP = new Stages(null, null, null, null, null, null, null, null);
+
+    private final MeterRegistry meterRegistry;
+    private final String consumerName;
+    private final double[] percentiles;
+    private final Duration[] slos;
+    private final Map<String, Stages> stagesByTopic = new ConcurrentHashMap<>();
+
+    public ConsumerPipelineMetrics(MeterRegistry meterRegistry, String consumerName, KafkaConsumerProps.Metrics props) {
+        this.meterRegistry = meterRegistry;
+        this.consumerName = consumerName != null ? consumerName : "unknown";
+        this.percentiles = props.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+        this.slos = props.getSlos().toArray(Duration[]::new);
+    }
+
+    Stages stages(String topic) {
+        return stagesByTopic.computeIfAbsent(topic, this::createStages);
+    }
+
+    private Stages createStages(String topic) {
+        return new Stages(timer(topic, "save"), timer(topic, "state.processing"), timer(topic, "state.completed"),
+                timer(topic, "resilience"), timer(topic, "process"), timer(topic, "ack"), counter(topic, "acked"),
+                counter(topic, "failed"));
+    }
+
+    private Timer timer(String topic, String stage) {
+        return Timer.builder("kafka.consumer.stage")
+                .description("Time spent per record in each stage of the consumer listener")
+                .tag("topic", topic)
+                .tag("consumer", consumerName)
+                .tag("stage", stage)
+                .publishPercentiles(percentiles)
+                .serviceLevelObjectives(slos)
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String topic, String outcome) {
+        return Counter.builder("kafka.consumer.records")
+                .tag("topic", topic)
+                .tag("consumer", consumerName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Each method records the time since start and returns the current System.nanoTime() for the next stage
+    record Stages(Timer save, Timer stateProcessing, Timer stateCompleted, Timer resilience, Timer process, Timer ack,
+                  Counter acked, Counter failed) {
+
+        long saved(long start) {
+            return lap(save, start);
+        }
+
+        long markedProcessing(long start) {
+            return lap(stateProcessing, start);
+        }
+
+        long resilienceDone(long start) {
+            return lap(resilience, start);
+        }
+
+        // Durations measured inside the resilience call, recorded once it has returned
+        void attempt(long processNanos, long completedNanos) {
+            if (process != null && processNanos >= 0) {
+                process.record(processNanos, TimeUnit.NANOSECONDS);
+            }
+            if (stateCompleted != null && completedNanos >= 0) {
+                stateCompleted.record(completedNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void acknowledged(long start, boolean failure) {
+            lap(ack, start);
+            Counter outcome = failure ? failed : acked;
+            if (outcome != null) {
+                outcome.increment();
+            }
+        }
+
+        // failed and handed back to the container without an ack
+        void rethrown() {
+            if (failed != null) {
+                failed.increment();
+            }
+        }
+
+        private static long lap(Timer timer, long start) {
+            long now = System.nanoTime();
+            if (timer != null) {
+                timer.record(now - start, TimeUnit.NANOSECONDS);
+            }
+            return now;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package dev.shubham.labs.kafka.xconsumer;
+
+import dev.shubham.labs.kafka.codec.PooledRecord;
+import dev.shubham.labs.kafka.xconsumer.event.EventService;
+import dev.shubham.labs.kafka.xconsumer.resiliency.ResilienceStrategy;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+@Slf4j
+public class CustomizedBatchMessageListener<K, V> {
+
+    private final EventService<K, V> eventService;
+    private final Consumer<List<ConsumerRecord<K, V>>> batchProcessor;
+    private final ResilienceStrategy resilienceStrategy;
+
+    public CustomizedBatchMessageListener(EventService<K, V> eventService, ResilienceStrategy resilienceStrategy,
+                                          Consumer<List<ConsumerRecord<K, V>>> batchProcessor) {
+        this.eventService = eventService;
+        this.resilienceStrategy = resilienceStrategy;
+        this.batchProcessor = batchProcessor;
+    }
+
+    public BatchAcknowledgingMessageListener<K, V> messageListener() {
+        return (records, acknowledgment) -> {
+            try {
+                eventService.saveEvents(records);
+                eventService.updateEventsStateToProcessing(records);
+            } catch (RuntimeException e) {
+                log.error("Error journaling batch", e);
+                eventService.updateEventsStateToConsumedFailure(records, e);
+                eventService.acknowledge(records, acknowledgment);
+                release(records);
+                return;
+            }
+            List<ConsumerRecord<K, V>> remaining = records;
+            while (!remaining.isEmpty()) {
+                remaining = processBatch(records, remaining);
+            }
+            eventService.acknowledge(records, acknowledgment);
+            release(records);
+        };
+    }
+
+    private void release(List<ConsumerRecord<K, V>> records) {
+        for (ConsumerRecord<K, V> record : records) {
+            if (record.value() instanceof PooledRecord pooled) {
+                pooled.release();
+            }
+        }
+    }
+
+    // Processes the batch and returns the records that still need processing after a partial failure
+    private List<ConsumerRecord<K, V>> processBatch(List<ConsumerRecord<K, V>> records, List<ConsumerRecord<K, V>> batch) {
+        try {
+            resilienceStrategy.executeWithResilience(() -> {
+                batchProcessor.accept(batch);
+                eventService.updateEventsStateToConsumedSuccessfully(batch);
+            });
+            return List.of();
+        } catch (CallNotPermittedException e) {
+            eventService.updateEventsStateToConsumedFailure(batch, e);
+            log.error("call not permitted");
+            throw e;
+        } catch (Throwable e) {
+            BatchListenerFailedException failure = findBatchFailure(e);
+            int index = failure != null ? failedIndex(failure, batch) : -1;
+            if (eventService.isNoOp()) {
+                log.error("Error processing batch", e);
+                // let the container error handler commit the records before the failed one and retry from it
+                if (index >= 0) {
+                    throw new BatchListenerFailedException("Failed to process batch", e,
+                            records.size() - batch.size() + index);
+                }
+                throw new RuntimeException(e);
+            }
+            if (index < 0) {
+                eventService.updateEventsStateToConsumedFailure(batch, e);
+                return List.of();
+            }
+            Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+            log.warn("Batch failed at index {} (topic: {}, partition: {}, offset: {}), continuing with the rest",
+                    index, batch.get(index).topic(), batch.get(index).partition(), batch.get(index).offset());
+            eventService.updateEventsStateToConsumedSuccessfully(batch.subList(0, index));
+            eventService.updateEventsStateToConsumedFailure(batch.subList(index, index + 1), cause);
+            return batch.subList(index + 1, batch.size());
+        }
+    }
+
+    private BatchListenerFailedException findBatchFailure(Throwable e) {
+        Throwable current = e;
+        while (current != null) {
+            if (current instanceof BatchListenerFailedException failure) {
+                return failure;
+            }
+            current = current.getCause();
+        }
+        return null;
+    }
+
+    private int failedIndex(BatchListenerFailedException failure, List<ConsumerRecord<K, V>> batch) {
+        if (failure.getRecord() != null) {
+            return batch.indexOf(failure.getRecord());
+        }
+        return failure.getIndex() < batch.size() ? failure.getIndex() : -1;
+    }
+}
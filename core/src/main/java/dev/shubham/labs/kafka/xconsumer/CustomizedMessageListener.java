@@ -1,5 +1,6 @@
 package dev.shubham.labs.kafka.xconsumer;
 
+import dev.shubham.labs.kafka.codec.PooledRecord;
 import dev.shubham.labs.kafka.xconsumer.event.EventService;
 import dev.shubham.labs.kafka.xconsumer.resiliency.ResilienceStrategy;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
@@ -7,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.listener.AcknowledgingMessageListener;
 
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 @Slf4j
@@ -15,38 +17,79 @@ public class CustomizedMessageListener<K, V> {
     private final EventService<K, V> eventService;
     private final Consumer<ConsumerRecord<K, V>> messageProcessor;
     private final ResilienceStrategy resilienceStrategy;
-
+    private final ConsumerPipelineMetrics metrics;
+    // told about failures the listener handles by marking the record failed instead of rethrowing
+    private final BiConsumer<ConsumerRecord<K, V>, Throwable> failureListener;
 
     public CustomizedMessageListener(EventService<K, V> eventService, ResilienceStrategy resilienceStrategy,
                                      Consumer<ConsumerRecord<K, V>> messageProcessor) {
+        this(eventService, resilienceStrategy, messageProcessor, null);
+    }
+
+    public CustomizedMessageListener(EventService<K, V> eventService, ResilienceStrategy resilienceStrategy,
+                                     Consumer<ConsumerRecord<K, V>> messageProcessor, ConsumerPipelineMetrics metrics) {
+        this(eventService, resilienceStrategy, messageProcessor, metrics, null);
+    }
+
+    public CustomizedMessageListener(EventService<K, V> eventService, ResilienceStrategy resilienceStrategy,
+                                     Consumer<ConsumerRecord<K, V>> messageProcessor, ConsumerPipelineMetrics metrics,
+                                     BiConsumer<ConsumerRecord<K, V>, Throwable> failureListener) {
         this.eventService = eventService;
         this.resilienceStrategy = resilienceStrategy;
         this.messageProcessor = messageProcessor;
+        this.metrics = metrics;
+        this.failureListener = failureListener;
     }
 
     public AcknowledgingMessageListener<K, V> messageListener() {
         return (record, acknowledgment) -> {
+            ConsumerPipelineMetrics.Stages stages = metrics != null
+                    ? metrics.stages(record.topic())
+                    : ConsumerPipelineMetrics.NOOP;
+            boolean failed = false;
+            // timings of the latest attempt, -1 until it gets that far; recorded once, not per retry
+            long[] attempt = {-1, -1};
+            long lap = System.nanoTime();
             try {
                 eventService.saveEvent(record);
+                lap = stages.saved(lap);
                 eventService.updateEventStateToProcessing(record);
+                lap = stages.markedProcessing(lap);
                 resilienceStrategy.executeWithResilience(() -> {
+                    attempt[0] = -1;
+                    attempt[1] = -1;
+                    long processStart = System.nanoTime();
                     messageProcessor.accept(record);
+                    long processed = System.nanoTime();
+                    attempt[0] = processed - processStart;
                     eventService.updateEventStateToConsumedSuccessfully(record);
+                    attempt[1] = System.nanoTime() - processed;
                 });
-                if (acknowledgment != null)
-                    acknowledgment.acknowledge();
+                stages.resilienceDone(lap);
             } catch (CallNotPermittedException e) {
                 eventService.updateEventStateToConsumedFailure(record, e);
+                stages.rethrown();
                 log.error("call not permitted");
                 throw e;
             } catch (Throwable e) {
                 if (eventService.isNoOp()) {
+                    stages.rethrown();
                     log.error("Error processing message", e);
                     throw new RuntimeException(e);
                 }
                 eventService.updateEventStateToConsumedFailure(record, e);
-                if (acknowledgment != null)
-                    acknowledgment.acknowledge();
+                failed = true;
+                if (failureListener != null) {
+                    failureListener.accept(record, e);
+                }
+            }
+            stages.attempt(attempt[0], attempt[1]);
+            long ackStart = System.nanoTime();
+            eventService.acknowledge(record, acknowledgment);
+            stages.acknowledged(ackStart, failed);
+            // a rethrown record may be retried, so its holder only goes back to the pool once it is done with
+            if (record.value() instanceof PooledRecord pooled) {
+                pooled.release();
             }
         };
     }
@@ -1,13 +1,25 @@
 package dev.shubham.labs.kafka.xconsumer;
 
 import dev.shubham.labs.kafka.KafkaConsumerProps;
+import dev.shubham.labs.kafka.codec.PooledRecordDeserializer;
+import dev.shubham.labs.kafka.codec.RecordCodecDeserializer;
+import dev.shubham.labs.kafka.codec.RecordCodecSerializer;
+import dev.shubham.labs.kafka.codec.ReusableRecordCodec;
+import dev.shubham.labs.kafka.consumer.SampledConsumerTracer;
+import dev.shubham.labs.kafka.xconsumer.dedup.DeduplicatingListener;
+import dev.shubham.labs.kafka.xconsumer.dispatch.KeyOrderedDispatcher;
+import dev.shubham.labs.kafka.xconsumer.dispatch.RecordDispatcher;
 import dev.shubham.labs.kafka.xconsumer.event.EventService;
 import dev.shubham.labs.kafka.xconsumer.event.NoOpEventService;
+import dev.shubham.labs.kafka.xconsumer.lag.ConsumerLagMonitor;
+import dev.shubham.labs.kafka.xconsumer.lag.LagAutoscaler;
 import dev.shubham.labs.kafka.xconsumer.lifecycle.ContainerLifecycleStrategy;
 import dev.shubham.labs.kafka.xconsumer.lifecycle.NoOpContainerStrategy;
 import dev.shubham.labs.kafka.xconsumer.resiliency.NoOpResilienceStrategy;
 import dev.shubham.labs.kafka.xconsumer.resiliency.ResilienceStrategy;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.instrumentation.kafkaclients.v2_6.TracingConsumerInterceptor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -15,12 +27,16 @@ import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 public class KafkaConsumerBuilder<K, V> {
@@ -29,11 +45,17 @@ public class KafkaConsumerBuilder<K, V> {
     private KafkaConsumerProps config;
     private Class<?> keyClass;
     private Class<?> valueClass;
+    private Class<?> valueCodec;
     private MeterRegistry meterRegistry;
     private EventService<K, V> eventService = new NoOpEventService<>();
     private ResilienceStrategy resilienceStrategy = new NoOpResilienceStrategy();
     private ContainerLifecycleStrategy containerStrategy = new NoOpContainerStrategy();
     private Consumer<ConsumerRecord<K, V>> messageProcessor;
+    private Consumer<List<ConsumerRecord<K, V>>> batchMessageProcessor;
+    private RecordDispatcher<K, V> dispatcher;
+    private OpenTelemetry openTelemetry;
+    private ConsumerLagMonitor lagMonitor;
+    private DeduplicatingListener<K, V> deduplicator;
     private final Map<String, Object> additionalProperties = new HashMap<>();
 
     public KafkaConsumerBuilder<K, V> withConfig(KafkaConsumerProps config) {
@@ -51,6 +73,11 @@ public class KafkaConsumerBuilder<K, V> {
         return this;
     }
 
+    public KafkaConsumerBuilder<K, V> withValueCodec(Class<?> valueCodec) {
+        this.valueCodec = valueCodec;
+        return this;
+    }
+
     public KafkaConsumerBuilder<K, V> withMeterRegistry(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
         return this;
@@ -76,6 +103,31 @@ public class KafkaConsumerBuilder<K, V> {
         return this;
     }
 
+    public KafkaConsumerBuilder<K, V> withBatchMessageProcessor(Consumer<List<ConsumerRecord<K, V>>> batchMessageProcessor) {
+        this.batchMessageProcessor = batchMessageProcessor;
+        return this;
+    }
+
+    public KafkaConsumerBuilder<K, V> withDispatcher(RecordDispatcher<K, V> dispatcher) {
+        this.dispatcher = dispatcher;
+        return this;
+    }
+
+    public KafkaConsumerBuilder<K, V> withParallelDispatch(int maxInFlight) {
+        this.dispatcher = new KeyOrderedDispatcher<>(maxInFlight);
+        return this;
+    }
+
+    public KafkaConsumerBuilder<K, V> withOpenTelemetry(OpenTelemetry openTelemetry) {
+        this.openTelemetry = openTelemetry;
+        return this;
+    }
+
+    public KafkaConsumerBuilder<K, V> withLagMonitor(ConsumerLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        return this;
+    }
+
     public KafkaConsumerBuilder<K, V> withAdditionalProperty(String key, Object value) {
         this.additionalProperties.put(key, value);
         return this;
@@ -98,20 +150,81 @@ public class KafkaConsumerBuilder<K, V> {
         if (config == null) throw new IllegalStateException("KafkaConsumerProps is required");
         if (keyClass == null) throw new IllegalStateException("Key class is required");
         if (valueClass == null) throw new IllegalStateException("Value class is required");
-        if (messageProcessor == null) throw new IllegalStateException("Message processor is required");
+        if (messageProcessor == null && batchMessageProcessor == null)
+            throw new IllegalStateException("Message processor is required");
+        if (messageProcessor != null && batchMessageProcessor != null)
+            throw new IllegalStateException("Only one of message processor and batch message processor can be set");
+        if (dispatcher == null && config.getMaxInFlight() > 0)
+            dispatcher = new KeyOrderedDispatcher<>(config.getMaxInFlight());
+        if (dispatcher != null && batchMessageProcessor != null)
+            throw new IllegalStateException("Dispatchers only support per-record message processors");
+        if (config.getDedup().isEnabled() && batchMessageProcessor != null)
+            throw new IllegalStateException("Deduplication only supports per-record message processors");
     }
 
     private ContainerProperties createContainerProperties() {
         ContainerProperties props = new ContainerProperties(config.getTopic());
         props.setAckMode(ContainerProperties.AckMode.MANUAL);
-        props.setMessageListener(
-                new CustomizedMessageListener<>(eventService, resilienceStrategy, messageProcessor)
-                        .messageListener()
-        );
-        props.setObservationEnabled(true);
+        if (batchMessageProcessor != null) {
+            props.setMessageListener(
+                    new CustomizedBatchMessageListener<>(eventService, resilienceStrategy, batchMessageProcessor)
+                            .messageListener()
+            );
+        } else {
+            ConsumerPipelineMetrics metrics = meterRegistry != null && config.getMetrics().isEnabled()
+                    ? new ConsumerPipelineMetrics(meterRegistry, config.getConsumerName(), config.getMetrics())
+                    : null;
+            SampledConsumerTracer tracer = isSampledTracing()
+                    ? new SampledConsumerTracer(config.getConsumerName(),
+                    config.getConsumerGroup() != null ? config.getConsumerGroup() : config.getGroupId(),
+                    openTelemetry != null ? openTelemetry : GlobalOpenTelemetry.get(), config.getTracing())
+                    : null;
+            BiConsumer<ConsumerRecord<K, V>, Throwable> failureListener = tracer != null ? tracer::failed : null;
+            var listener = new CustomizedMessageListener<>(eventService, resilienceStrategy, messageProcessor, metrics,
+                    failureListener)
+                    .messageListener();
+            // traced inside the dispatcher so the span covers processing rather than the hand-off
+            if (tracer != null) {
+                listener = tracer.decorate(listener);
+            }
+            // inside the dispatcher, so a skipped duplicate is acked in offset order with the records around it
+            if (config.getDedup().isEnabled()) {
+                deduplicator = new DeduplicatingListener<>(eventService, config, meterRegistry);
+                listener = deduplicator.decorate(listener);
+            }
+            props.setMessageListener(dispatcher != null ? dispatcher.decorate(listener) : listener);
+        }
+        props.setObservationEnabled(!isSampledTracing());
+        configureRebalanceListener(props);
         return props;
     }
 
+    private boolean isSampledTracing() {
+        return config.getTracing().isEnabled() && batchMessageProcessor == null;
+    }
+
+    private void configureRebalanceListener(ContainerProperties props) {
+        // the dispatcher drains in-flight records first so the event service can flush their acks before the commit
+        List<ConsumerAwareRebalanceListener> listeners = new ArrayList<>();
+        if (dispatcher != null) {
+            listeners.add(dispatcher);
+        }
+        if (eventService instanceof ConsumerAwareRebalanceListener rebalanceListener) {
+            listeners.add(rebalanceListener);
+        }
+        if (containerStrategy instanceof ConsumerAwareRebalanceListener rebalanceListener) {
+            listeners.add(rebalanceListener);
+        }
+        if (deduplicator != null) {
+            listeners.add(deduplicator);
+        }
+        if (listeners.size() == 1) {
+            props.setConsumerRebalanceListener(listeners.getFirst());
+        } else if (!listeners.isEmpty()) {
+            props.setConsumerRebalanceListener(new CompositeRebalanceListener(listeners));
+        }
+    }
+
     private ConsumerFactory<K, V> createConsumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, config.getBootstrapServers());
@@ -121,9 +234,18 @@ public class KafkaConsumerBuilder<K, V> {
         props.put(ErrorHandlingDeserializer.KEY_DESERIALIZER_CLASS, ErrorHandlingDeserializer.class);
         props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, ErrorHandlingDeserializer.class);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        Class<?> codec = valueCodec != null ? valueCodec : config.getValueCodec();
+        if (codec != null) {
+            props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ReusableRecordCodec.class.isAssignableFrom(codec)
+                    ? PooledRecordDeserializer.class
+                    : RecordCodecDeserializer.class);
+            props.put(RecordCodecSerializer.VALUE_CODEC_CONFIG, codec);
+        }
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        props.put(ConsumerConfig.INTERCEPTOR_CLASSES_CONFIG, TracingConsumerInterceptor.class.getName());
+        if (!isSampledTracing()) {
+            props.put(ConsumerConfig.INTERCEPTOR_CLASSES_CONFIG, TracingConsumerInterceptor.class.getName());
+        }
 
         props.putAll(additionalProperties);
 
@@ -138,5 +260,16 @@ public class KafkaConsumerBuilder<K, V> {
         container.setConcurrency(config.getConcurrency());
 
         containerStrategy.registerContainer(container);
+        if (dispatcher != null) {
+            dispatcher.registerContainer(container);
+        }
+        if (lagMonitor != null) {
+            String name = lagMonitor.register(config, container, containerStrategy);
+            if (config.getAutoscaling().isEnabled()) {
+                if (!(dispatcher instanceof KeyOrderedDispatcher<K, V> keyOrdered))
+                    throw new IllegalStateException("Autoscaling needs parallel dispatch (maxInFlight > 0)");
+                lagMonitor.addListener(name, new LagAutoscaler(name, keyOrdered, config.getAutoscaling(), meterRegistry));
+            }
+        }
     }
 }
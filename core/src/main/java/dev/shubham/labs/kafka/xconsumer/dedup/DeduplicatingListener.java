@@ -0,0 +1,134 @@
+package dev.shubham.labs.kafka.xconsumer.dedup;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.shubham.labs.kafka.KafkaConsumerProps;
+import dev.shubham.labs.kafka.codec.PooledRecord;
+import dev.shubham.labs.kafka.xconsumer.event.EventService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Short-circuits redelivered records before they reach the journal. Each assigned partition gets a window of
+// processed offsets, seeded on assignment from the committed position and the journal's final-state entries
+// above it, and records are marked once the listener acks them. Duplicates are acked through the event service
+// without being journaled or processed. With keyCacheSize > 0 record keys are treated as business idempotency
+// keys and an LRU of processed keys also filters redeliveries under new offsets; keys are only remembered in
+// memory, not loaded from the journal.
+//
+// Everything below the position a partition was assigned at counts as processed, and the window is kept across
+// seeks (KeyOrderedDispatcher relies on it to skip records that already ran when it sends a partition back). A
+// deliberate replay by seeking a partition below that position is therefore skipped as duplicates; replay by
+// resetting the group's committed offsets instead, so the next assignment starts its window at the new position.
+@Slf4j
+public class DeduplicatingListener<K, V> implements ConsumerAwareRebalanceListener {
+
+    private final EventService<K, V> eventService;
+    private final KafkaConsumerProps.Dedup props;
+    private final String consumerName;
+    private final MeterRegistry meterRegistry;
+    private final Map<TopicPartition, ProcessedOffsetWindow> windows = new ConcurrentHashMap<>();
+    private final Map<String, Counter> duplicatesByTopic = new ConcurrentHashMap<>();
+    private final Cache<ProcessedKey, Boolean> processedKeys;
+
+    public DeduplicatingListener(EventService<K, V> eventService, KafkaConsumerProps config, MeterRegistry meterRegistry) {
+        this.eventService = eventService;
+        this.props = config.getDedup();
+        this.consumerName = config.getConsumerName() != null ? config.getConsumerName() : "unknown";
+        this.meterRegistry = meterRegistry;
+        this.processedKeys = props.getKeyCacheSize() > 0
+                ? Caffeine.newBuilder().maximumSize(props.getKeyCacheSize()).build()
+                : null;
+    }
+
+    public AcknowledgingMessageListener<K, V> decorate(AcknowledgingMessageListener<K, V> listener) {
+        return (record, acknowledgment) -> {
+            if (isProcessed(record)) {
+                log.debug("Skipping duplicate record, topic: {}, partition: {}, offset: {}",
+                        record.topic(), record.partition(), record.offset());
+                duplicate(record.topic());
+                eventService.acknowledge(record, acknowledgment);
+                if (record.value() instanceof PooledRecord pooled) {
+                    pooled.release();
+                }
+                return;
+            }
+            listener.onMessage(record, () -> {
+                markProcessed(record);
+                if (acknowledgment != null)
+                    acknowledgment.acknowledge();
+            });
+        };
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            long position = consumer.position(partition);
+            ProcessedOffsetWindow window = new ProcessedOffsetWindow(position, props.getWindowSize());
+            try {
+                List<Long> processed = eventService.findProcessedOffsets(partition.topic(), partition.partition(),
+                        position, props.getWindowSize());
+                processed.forEach(window::mark);
+                log.debug("Loaded {} processed offsets for {} from {}", processed.size(), partition, position);
+            } catch (RuntimeException e) {
+                // the journal's unique index still rejects duplicates, just not as cheaply
+                log.error("Failed to load processed offsets for {}", partition, e);
+            }
+            windows.put(partition, window);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        partitions.forEach(windows::remove);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        partitions.forEach(windows::remove);
+    }
+
+    private boolean isProcessed(ConsumerRecord<K, V> record) {
+        ProcessedOffsetWindow window = windows.get(new TopicPartition(record.topic(), record.partition()));
+        if (window != null && window.contains(record.offset())) {
+            return true;
+        }
+        return processedKeys != null && record.key() != null
+                && processedKeys.getIfPresent(new ProcessedKey(record.topic(), record.key())) != null;
+    }
+
+    private void markProcessed(ConsumerRecord<K, V> record) {
+        ProcessedOffsetWindow window = windows.get(new TopicPartition(record.topic(), record.partition()));
+        if (window != null) {
+            window.mark(record.offset());
+        }
+        if (processedKeys != null && record.key() != null) {
+            processedKeys.put(new ProcessedKey(record.topic(), record.key()), Boolean.TRUE);
+        }
+    }
+
+    private void duplicate(String topic) {
+        if (meterRegistry == null) {
+            return;
+        }
+        duplicatesByTopic.computeIfAbsent(topic, t -> Counter.builder("kafka.consumer.records")
+                .tag("topic", t)
+                .tag("consumer", consumerName)
+                .tag("outcome", "duplicate")
+                .register(meterRegistry)).increment();
+    }
+
+    private record ProcessedKey(String topic, Object key) {
+    }
+}
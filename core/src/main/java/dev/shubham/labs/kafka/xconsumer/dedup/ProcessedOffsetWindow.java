@@ -0,0 +1,70 @@
+package dev.shubham.labs.kafka.xconsumer.dedup;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Processed offsets of one partition. Everything below the floor, the position the partition was assigned at,
+// was committed and counts as processed. Above it a ring of windowSize bits remembers the most recent processed
+// offsets; offsets that fall out of the ring are forgotten rather than assumed processed, so the window can only
+// miss a duplicate, never drop a record.
+class ProcessedOffsetWindow {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final BitSet bits;
+    private final int windowSize;
+    private final long floor;
+    // lowest offset the ring still covers
+    private long base;
+
+    ProcessedOffsetWindow(long floor, int windowSize) {
+        this.bits = new BitSet(windowSize);
+        this.windowSize = windowSize;
+        this.floor = floor;
+        this.base = floor;
+    }
+
+    boolean contains(long offset) {
+        if (offset < floor) {
+            return true;
+        }
+        lock.lock();
+        try {
+            return offset >= base && offset < base + windowSize && bits.get(index(offset));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void mark(long offset) {
+        if (offset < floor) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (offset < base) {
+                return;
+            }
+            if (offset >= base + windowSize) {
+                slide(offset - windowSize + 1);
+            }
+            bits.set(index(offset));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void slide(long newBase) {
+        if (newBase - base >= windowSize) {
+            bits.clear();
+        } else {
+            for (long offset = base; offset < newBase; offset++) {
+                bits.clear(index(offset));
+            }
+        }
+        base = newBase;
+    }
+
+    private int index(long offset) {
+        return (int) Math.floorMod(offset, (long) windowSize);
+    }
+}
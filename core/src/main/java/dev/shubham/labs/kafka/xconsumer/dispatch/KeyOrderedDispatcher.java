@@ -0,0 +1,346 @@
+package dev.shubham.labs.kafka.xconsumer.dispatch;
+
+import dev.shubham.labs.kafka.codec.PooledRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Runs records of one partition in parallel while keeping records with the same key in offset order.
+// Each key gets a lane of chained futures; records without a key share their partition's lane.
+//
+// The poll thread never waits longer than permitTimeout for a slot. When no slot frees up, or a record comes back
+// unprocessed because a circuit breaker is open, its partition is sent back: the consumer seeks to that record,
+// the partition pauses for retryBackoff, and records after it that were already fetched or queued are dropped
+// unacked. Records of other lanes that already ran past that offset are delivered again after the seek, which the
+// event journal and the deduplicator absorb.
+@Slf4j
+public class KeyOrderedDispatcher<K, V> implements RecordDispatcher<K, V>, AutoCloseable {
+
+    private final ResizableSemaphore permits;
+    private final Duration drainTimeout;
+    private final Duration permitTimeout;
+    private final Duration retryBackoff;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService resumer;
+    private final Map<Object, CompletableFuture<Void>> lanes = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+    private final Map<TopicPartition, ConsumerSeekAware.ConsumerSeekCallback> seekCallbacks = new ConcurrentHashMap<>();
+    // only partitions this dispatcher paused are resumed by it, so pauses requested elsewhere are left alone
+    private final ReentrantLock pauseLock = new ReentrantLock();
+    private final Set<TopicPartition> pausedPartitions = new HashSet<>();
+    private volatile MessageListenerContainer container;
+
+    public KeyOrderedDispatcher(int maxInFlight) {
+        this(maxInFlight, Duration.ofSeconds(30));
+    }
+
+    public KeyOrderedDispatcher(int maxInFlight, Duration drainTimeout) {
+        this(maxInFlight, drainTimeout, Duration.ofMillis(100), Duration.ofSeconds(1));
+    }
+
+    public KeyOrderedDispatcher(int maxInFlight, Duration drainTimeout, Duration permitTimeout,
+                                Duration retryBackoff) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be at least 1");
+        this.permits = new ResizableSemaphore(maxInFlight);
+        this.drainTimeout = drainTimeout;
+        this.permitTimeout = permitTimeout;
+        this.retryBackoff = retryBackoff;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kafka-dispatch-", 0).factory());
+        this.resumer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("kafka-dispatch-resumer").factory());
+    }
+
+    @Override
+    public AcknowledgingMessageListener<K, V> decorate(AcknowledgingMessageListener<K, V> listener) {
+        return new DispatchingListener(listener);
+    }
+
+    @Override
+    public void registerContainer(MessageListenerContainer container) {
+        this.container = container;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be at least 1");
+        permits.resize(maxInFlight);
+    }
+
+    public int getMaxInFlight() {
+        return permits.limit();
+    }
+
+    public int getInFlight() {
+        return Math.max(0, permits.limit() - permits.availablePermits());
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        // wait for running records so their acks are queued before the container commits
+        drain(partitions);
+        forget(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        drain(partitions);
+        forget(partitions);
+    }
+
+    @Override
+    public void close() {
+        drain(partitions.keySet());
+        executor.shutdown();
+        resumer.shutdownNow();
+    }
+
+    // Runs on the poll thread
+    private void dispatch(AcknowledgingMessageListener<K, V> listener, ConsumerRecord<K, V> record,
+                          Acknowledgment acknowledgment) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        PartitionState state = partitions.computeIfAbsent(partition, tp -> new PartitionState());
+        if (!state.admit(record.offset())) {
+            // fetched before the seek back took effect; it is delivered again after the record it was sent back to
+            release(record);
+            return;
+        }
+        if (!tryAcquirePermit()) {
+            if (sendBack(partition, state, record.offset())) {
+                release(record);
+                return;
+            }
+            acquirePermit();
+        }
+        PartitionOffsetTracker.Tracked tracked = state.track(record.offset(), acknowledgment);
+        if (tracked == null) {
+            // a worker sent the partition back to an earlier offset while this record waited for its slot
+            permits.release();
+            release(record);
+            return;
+        }
+        Object laneKey = record.key() != null ? record.key() : partition;
+        // chained with handle so a predecessor that completed exceptionally can't skip the rest of the lane
+        CompletableFuture<Void> lane = lanes.compute(laneKey, (key, tail) -> tail == null
+                ? CompletableFuture.runAsync(() -> process(listener, record, tracked, partition, state), executor)
+                : tail.handleAsync((result, error) -> {
+                    process(listener, record, tracked, partition, state);
+                    return null;
+                }, executor));
+        lane.whenComplete((result, error) -> lanes.remove(laneKey, lane));
+    }
+
+    private void process(AcknowledgingMessageListener<K, V> listener, ConsumerRecord<K, V> record,
+                         PartitionOffsetTracker.Tracked acknowledgment, TopicPartition partition,
+                         PartitionState state) {
+        try {
+            if (state.revoked || acknowledgment.isCancelled()) {
+                release(record);
+                return;
+            }
+            if (!ListenerInvoker.invokeWithRetries(listener, record, acknowledgment)) {
+                // the breaker is open, so the record never ran; waiting for it here would hold the slot
+                if (sendBack(partition, state, record.offset())) {
+                    release(record);
+                } else {
+                    log.error("Record (topic: {}, partition: {}, offset: {}) was rejected by an open circuit breaker "
+                            + "and can't be sent back", record.topic(), record.partition(), record.offset());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            // left unacked, so the partition's commit holds at this record until it is redelivered
+            log.error("Record (topic: {}, partition: {}, offset: {}) failed outside the listener's retries",
+                    record.topic(), record.partition(), record.offset(), e);
+        } finally {
+            state.tracker.taskFinished();
+            permits.release();
+        }
+    }
+
+    // Seeks the partition back to the offset and pauses it for retryBackoff. Returns false when the partition
+    // is no longer owned or the container never handed over a seek callback.
+    private boolean sendBack(TopicPartition partition, PartitionState state, long offset) {
+        ConsumerSeekAware.ConsumerSeekCallback callback = seekCallbacks.get(partition);
+        if (callback == null || state.revoked) {
+            return false;
+        }
+        state.lock.lock();
+        try {
+            if (state.blockedFrom < 0 || offset < state.blockedFrom) {
+                state.blockedFrom = offset;
+                state.tracker.truncate(offset);
+                // seeks are queued for the consumer thread, so they're issued under the lock to keep the last
+                // one the lowest offset
+                callback.seek(partition.topic(), partition.partition(), offset);
+                log.debug("Sent partition {} back to offset {}", partition, offset);
+            }
+        } finally {
+            state.lock.unlock();
+        }
+        pause(partition);
+        return true;
+    }
+
+    private void pause(TopicPartition partition) {
+        MessageListenerContainer current = container;
+        if (current == null) {
+            return;
+        }
+        pauseLock.lock();
+        try {
+            if (current.isPartitionPauseRequested(partition)) {
+                return;
+            }
+            current.pausePartition(partition);
+            pausedPartitions.add(partition);
+        } finally {
+            pauseLock.unlock();
+        }
+        resumer.schedule(() -> resume(partition), retryBackoff.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void resume(TopicPartition partition) {
+        MessageListenerContainer current = container;
+        if (current == null) {
+            return;
+        }
+        pauseLock.lock();
+        try {
+            if (pausedPartitions.remove(partition)) {
+                current.resumePartition(partition);
+            }
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    private void forget(Collection<TopicPartition> revoked) {
+        pauseLock.lock();
+        try {
+            pausedPartitions.removeAll(revoked);
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    private boolean tryAcquirePermit() {
+        try {
+            return permits.tryAcquire(permitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a dispatch slot", e);
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a dispatch slot", e);
+        }
+    }
+
+    private void release(ConsumerRecord<K, V> record) {
+        if (record.value() instanceof PooledRecord pooled) {
+            pooled.release();
+        }
+    }
+
+    private void drain(Collection<TopicPartition> revoked) {
+        for (TopicPartition partition : revoked.toArray(TopicPartition[]::new)) {
+            PartitionState state = partitions.remove(partition);
+            if (state == null) {
+                continue;
+            }
+            // records still queued are skipped; the next owner fetches them from the committed offset
+            state.revoked = true;
+            try {
+                if (!state.tracker.awaitIdle(drainTimeout)) {
+                    log.warn("Timed out draining in-flight records for partition {}, dropping their acks", partition);
+                    state.tracker.invalidate();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                state.tracker.invalidate();
+                return;
+            }
+        }
+    }
+
+    private static final class PartitionState {
+        private final PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+        private final ReentrantLock lock = new ReentrantLock();
+        // offset the consumer was sent back to, or -1; later records are skipped until it comes around again
+        private long blockedFrom = -1;
+        private volatile boolean revoked;
+
+        private boolean admit(long offset) {
+            lock.lock();
+            try {
+                if (blockedFrom < 0) {
+                    return true;
+                }
+                if (offset > blockedFrom) {
+                    return false;
+                }
+                blockedFrom = -1;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private PartitionOffsetTracker.Tracked track(long offset, Acknowledgment acknowledgment) {
+            lock.lock();
+            try {
+                return blockedFrom >= 0 && offset >= blockedFrom ? null : tracker.track(offset, acknowledgment);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Seek callbacks only reach listeners, so the dispatcher takes them through the listener it hands the container
+    private final class DispatchingListener implements AcknowledgingMessageListener<K, V>, ConsumerSeekAware {
+
+        private final AcknowledgingMessageListener<K, V> delegate;
+
+        private DispatchingListener(AcknowledgingMessageListener<K, V> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onMessage(ConsumerRecord<K, V> record, Acknowledgment acknowledgment) {
+            dispatch(delegate, record, acknowledgment);
+        }
+
+        @Override
+        public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+            assignments.keySet().forEach(partition -> seekCallbacks.put(partition, callback));
+        }
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> revoked) {
+            revoked.forEach(seekCallbacks::remove);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package dev.shubham.labs.kafka.xconsumer.dispatch;
+
+import dev.shubham.labs.kafka.codec.PooledRecord;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+
+// Invokes a listener off the poll thread, where the container error handler can no longer retry failures
+@Slf4j
+public final class ListenerInvoker {
+
+    // mirrors the attempts the container's default error handler makes before skipping a record
+    private static final int MAX_ATTEMPTS = 10;
+    private static final Duration RETRY_BACKOFF = Duration.ofMillis(100);
+
+    private ListenerInvoker() {
+    }
+
+    // Retries the listener and acknowledges the record once the attempts run out so its partition can progress.
+    // Returns false without acking when a circuit breaker is open: the record never ran, and waiting here for the
+    // breaker to close would hold the caller's slot, so the caller decides when to hand it back.
+    public static <K, V> boolean invokeWithRetries(AcknowledgingMessageListener<K, V> listener, ConsumerRecord<K, V> record,
+                                                   Acknowledgment acknowledgment) throws InterruptedException {
+        int attempt = 0;
+        while (true) {
+            try {
+                listener.onMessage(record, acknowledgment);
+                return true;
+            } catch (VirtualMachineError e) {
+                throw e;
+            } catch (Throwable e) {
+                if (isCallNotPermitted(e)) {
+                    log.debug("Circuit breaker open for record (topic: {}, partition: {}, offset: {})",
+                            record.topic(), record.partition(), record.offset());
+                    return false;
+                }
+                if (++attempt >= MAX_ATTEMPTS) {
+                    log.error("Giving up on record (topic: {}, partition: {}, offset: {}) after {} attempts",
+                            record.topic(), record.partition(), record.offset(), attempt, e);
+                    acknowledgment.acknowledge();
+                    // the listener only releases holders of records it finished with
+                    if (record.value() instanceof PooledRecord pooled) {
+                        pooled.release();
+                    }
+                    return true;
+                }
+                log.warn("Error processing record (topic: {}, partition: {}, offset: {}), attempt {}",
+                        record.topic(), record.partition(), record.offset(), attempt, e);
+                Thread.sleep(RETRY_BACKOFF);
+            }
+        }
+    }
+
+    private static boolean isCallNotPermitted(Throwable e) {
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            if (current instanceof CallNotPermittedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,141 @@
+package dev.shubham.labs.kafka.xconsumer.dispatch;
+
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Tracks the records of one partition handed to workers and acks the highest contiguous completed offset
+public class PartitionOffsetTracker {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition idle = lock.newCondition();
+    private final ArrayDeque<Tracked> pending = new ArrayDeque<>();
+    private int runningTasks;
+    private boolean invalidated;
+
+    // Must be called in offset order, which the poll thread guarantees
+    public Tracked track(long offset, Acknowledgment acknowledgment) {
+        Tracked entry = new Tracked(offset, acknowledgment);
+        lock.lock();
+        try {
+            pending.addLast(entry);
+            runningTasks++;
+        } finally {
+            lock.unlock();
+        }
+        return entry;
+    }
+
+    // Cancels the records at or after the offset, e.g. because the consumer is about to seek back to it.
+    // Acks of cancelled records are dropped, so the commit never moves past a record that gets redelivered.
+    public void truncate(long offset) {
+        lock.lock();
+        try {
+            while (!pending.isEmpty() && pending.peekLast().offset >= offset) {
+                pending.pollLast().cancelled = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Cancels every record still pending once the partition is no longer owned by this consumer
+    public void invalidate() {
+        lock.lock();
+        try {
+            invalidated = true;
+            pending.forEach(entry -> entry.cancelled = true);
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void taskFinished() {
+        lock.lock();
+        try {
+            runningTasks--;
+            if (runningTasks == 0) {
+                idle.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long nanos = timeout.toNanos();
+        lock.lock();
+        try {
+            while (runningTasks > 0) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = idle.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void complete(Tracked entry) {
+        lock.lock();
+        try {
+            if (entry.cancelled || invalidated) {
+                return;
+            }
+            entry.completed = true;
+            Tracked last = null;
+            while (!pending.isEmpty() && pending.peekFirst().completed) {
+                last = pending.pollFirst();
+            }
+            // acking the last contiguous record commits everything before it as well
+            if (last != null && last.acknowledgment != null) {
+                last.acknowledgment.acknowledge();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The acknowledgment handed to the listener in place of the container's
+    public final class Tracked implements Acknowledgment {
+        private final long offset;
+        private final Acknowledgment acknowledgment;
+        private boolean completed;
+        private boolean cancelled;
+
+        private Tracked(long offset, Acknowledgment acknowledgment) {
+            this.offset = offset;
+            this.acknowledgment = acknowledgment;
+        }
+
+        @Override
+        public void acknowledge() {
+            complete(this);
+        }
+
+        public boolean isCancelled() {
+            lock.lock();
+            try {
+                return cancelled || invalidated;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package dev.shubham.labs.kafka.xconsumer.dispatch;
+
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+// Moves record processing off the poll thread; acks reach the container only in offset order per partition
+public interface RecordDispatcher<K, V> extends ConsumerAwareRebalanceListener {
+
+    AcknowledgingMessageListener<K, V> decorate(AcknowledgingMessageListener<K, V> listener);
+
+    default void registerContainer(MessageListenerContainer container) {
+    }
+}
@@ -0,0 +1,28 @@
+package dev.shubham.labs.kafka.xconsumer.dispatch;
+
+import java.util.concurrent.Semaphore;
+
+// Semaphore whose permit count can be changed while permits are held
+class ResizableSemaphore extends Semaphore {
+
+    private int limit;
+
+    ResizableSemaphore(int limit) {
+        super(limit);
+        this.limit = limit;
+    }
+
+    synchronized void resize(int newLimit) {
+        int delta = newLimit - limit;
+        if (delta > 0) {
+            release(delta);
+        } else if (delta < 0) {
+            reducePermits(-delta);
+        }
+        limit = newLimit;
+    }
+
+    synchronized int limit() {
+        return limit;
+    }
+}
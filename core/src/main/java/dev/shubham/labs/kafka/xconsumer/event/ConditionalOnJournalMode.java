@@ -0,0 +1,20 @@
+package dev.shubham.labs.kafka.xconsumer.event;
+
+import org.springframework.context.annotation.Conditional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Matches when event.storage.mode binds to the given mode, so every spelling the enum accepts
+// (write-behind, WRITE_BEHIND, write_behind) selects the same journal
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Documented
+@Conditional(OnJournalModeCondition.class)
+@interface ConditionalOnJournalMode {
+
+    EventStorageProps.JournalMode value();
+}
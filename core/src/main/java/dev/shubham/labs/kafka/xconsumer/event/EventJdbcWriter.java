@@ -0,0 +1,85 @@
+package dev.shubham.labs.kafka.xconsumer.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+// Plain JDBC access to the kafka_events table owned by EventEntity, used by the journaling modes that
+// bypass the JPA entity lifecycle. Relies on idx_topic_partition_offset for the ON CONFLICT target.
+@RequiredArgsConstructor
+class EventJdbcWriter {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO kafka_events (topic, partition, kafka_offset, key, value, status, error_message,
+                                      created_at, updated_at, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            ON CONFLICT (topic, partition, kafka_offset) DO UPDATE
+            SET status        = EXCLUDED.status,
+                error_message = EXCLUDED.error_message,
+                updated_at    = EXCLUDED.updated_at,
+                version       = kafka_events.version + 1
+            """;
+
+    private static final String PROCESSED_OFFSETS_SQL = """
+            SELECT kafka_offset
+            FROM kafka_events
+            WHERE topic = ? AND partition = ? AND kafka_offset >= ? AND status IN (?, ?)
+            ORDER BY kafka_offset
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    <K, V> EventRow toRow(ConsumerRecord<K, V> record, EventStatus status, String errorMessage) {
+        return new EventRow(record.topic(), record.partition(), record.offset(),
+                serialize(record.key()), serialize(record.value()), status, errorMessage);
+    }
+
+    void upsert(EventRow row) {
+        var now = Timestamp.from(Instant.now());
+        jdbcTemplate.update(UPSERT_SQL, ps -> bind(ps, row, now));
+    }
+
+    void upsert(Collection<EventRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        var now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> bind(ps, row, now));
+    }
+
+    List<Long> findProcessedOffsets(String topic, int partition, long fromOffset, int limit) {
+        return jdbcTemplate.queryForList(PROCESSED_OFFSETS_SQL, Long.class, topic, partition, fromOffset,
+                EventStatus.CONSUMED_SUCCESSFULLY.name(), EventStatus.CONSUMED_FAILURE.name(), limit);
+    }
+
+    private void bind(PreparedStatement ps, EventRow row, Timestamp now) throws SQLException {
+        ps.setString(1, row.topic());
+        ps.setInt(2, row.partition());
+        ps.setLong(3, row.offset());
+        ps.setString(4, row.key());
+        ps.setString(5, row.value());
+        ps.setString(6, row.status().name());
+        ps.setString(7, row.errorMessage());
+        ps.setTimestamp(8, now);
+        ps.setTimestamp(9, now);
+    }
+
+    private String serialize(Object value) {
+        try {
+            return value != null ? objectMapper.writeValueAsString(value) : null;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize event", e);
+        }
+    }
+}
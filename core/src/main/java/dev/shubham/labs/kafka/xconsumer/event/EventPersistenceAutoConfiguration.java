@@ -5,10 +5,13 @@ import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Fallback;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @AutoConfiguration
 public class EventPersistenceAutoConfiguration {
@@ -24,13 +27,37 @@ public class EventPersistenceAutoConfiguration {
     @EnableJpaRepositories(basePackageClasses = EventRepository.class)
     @EntityScan(basePackageClasses = {EventEntity.class})
     @ConditionalOnProperty(name = "event.storage.jpa.enabled", havingValue = "true")
+    @EnableConfigurationProperties(EventStorageProps.class)
     static class JpaConfig {
 
         @Bean
+        @ConditionalOnJournalMode(EventStorageProps.JournalMode.PER_RECORD)
         public <K, V> EventService<K, V> jpaEventService(
                 EventRepository eventRepository,
                 ObjectMapper objectMapper) {
             return new JpaEventService<>(eventRepository, objectMapper);
         }
+
+        @Bean
+        @ConditionalOnJournalMode(EventStorageProps.JournalMode.WRITE_BEHIND)
+        public <K, V> EventService<K, V> writeBehindEventService(
+                JdbcTemplate jdbcTemplate,
+                PlatformTransactionManager transactionManager,
+                ObjectMapper objectMapper,
+                EventStorageProps eventStorageProps) {
+            return new WriteBehindEventService<>(jdbcTemplate, transactionManager, objectMapper,
+                    eventStorageProps.getWriteBehind());
+        }
+
+        @Bean
+        @ConditionalOnJournalMode(EventStorageProps.JournalMode.UPSERT)
+        public <K, V> EventService<K, V> upsertEventService(
+                JdbcTemplate jdbcTemplate,
+                PlatformTransactionManager transactionManager,
+                ObjectMapper objectMapper,
+                EventStorageProps eventStorageProps) {
+            return new UpsertEventService<>(jdbcTemplate, transactionManager, objectMapper,
+                    eventStorageProps.getUpsert());
+        }
     }
 }
\ No newline at end of file
@@ -1,13 +1,21 @@
 package dev.shubham.labs.kafka.xconsumer.event;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<EventEntity, Long> {
     @Query("SELECT e FROM EventEntity e WHERE e.topic = ?1 AND e.partition = ?2 AND e.offset = ?3")
     Optional<EventEntity> findByTopicAndPartitionAndOffset(String topic, Integer partition, Long offset);
+
+    @Query("SELECT e.offset FROM EventEntity e WHERE e.topic = ?1 AND e.partition = ?2 AND e.offset >= ?3 " +
+            "AND e.status IN ?4 ORDER BY e.offset")
+    List<Long> findOffsets(String topic, Integer partition, Long fromOffset, Collection<EventStatus> statuses,
+                           Limit limit);
 }
\ No newline at end of file
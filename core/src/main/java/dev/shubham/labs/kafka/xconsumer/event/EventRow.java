@@ -0,0 +1,9 @@
+package dev.shubham.labs.kafka.xconsumer.event;
+
+record EventRow(String topic, int partition, long offset, String key, String value,
+                EventStatus status, String errorMessage) {
+
+    EventRow withStatus(EventStatus status, String errorMessage) {
+        return new EventRow(topic, partition, offset, key, value, status, errorMessage);
+    }
+}
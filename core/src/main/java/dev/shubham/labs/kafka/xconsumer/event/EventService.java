@@ -1,6 +1,9 @@
 package dev.shubham.labs.kafka.xconsumer.event;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
 
 public interface EventService<K, V> {
 
@@ -13,4 +16,37 @@ public interface EventService<K, V> {
     void updateEventStateToConsumedFailure(ConsumerRecord<K, V> record, Throwable e);
 
     boolean isNoOp();
+
+    // Journals that write asynchronously override this to hold the ack until the record's entry is durable
+    default void acknowledge(ConsumerRecord<K, V> record, Acknowledgment acknowledgment) {
+        if (acknowledgment != null)
+            acknowledgment.acknowledge();
+    }
+
+    // Batch variants used by the batch listener, implementations override them to journal a batch in one go
+    default void saveEvents(List<ConsumerRecord<K, V>> records) {
+        records.forEach(this::saveEvent);
+    }
+
+    default void updateEventsStateToProcessing(List<ConsumerRecord<K, V>> records) {
+        records.forEach(this::updateEventStateToProcessing);
+    }
+
+    default void updateEventsStateToConsumedSuccessfully(List<ConsumerRecord<K, V>> records) {
+        records.forEach(this::updateEventStateToConsumedSuccessfully);
+    }
+
+    default void updateEventsStateToConsumedFailure(List<ConsumerRecord<K, V>> records, Throwable e) {
+        records.forEach(record -> updateEventStateToConsumedFailure(record, e));
+    }
+
+    default void acknowledge(List<ConsumerRecord<K, V>> records, Acknowledgment acknowledgment) {
+        if (acknowledgment != null)
+            acknowledgment.acknowledge();
+    }
+
+    // Offsets from fromOffset up that reached a final state, in offset order; journals that can't tell return none
+    default List<Long> findProcessedOffsets(String topic, int partition, long fromOffset, int limit) {
+        return List.of();
+    }
 }
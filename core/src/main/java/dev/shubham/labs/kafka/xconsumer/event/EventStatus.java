@@ -1,8 +1,13 @@
 package dev.shubham.labs.kafka.xconsumer.event;
 
+import java.util.Set;
+
 public enum EventStatus {
     RECEIVED,
     PROCESSING,
     CONSUMED_SUCCESSFULLY,
-    CONSUMED_FAILURE
+    CONSUMED_FAILURE;
+
+    // states a record is acked in, so a redelivery of it is a duplicate
+    public static final Set<EventStatus> FINAL = Set.of(CONSUMED_SUCCESSFULLY, CONSUMED_FAILURE);
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package dev.shubham.labs.kafka.xconsumer.event;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "event.storage")
+public class EventStorageProps {
+
+    private JournalMode mode = JournalMode.PER_RECORD;
+    private WriteBehind writeBehind = new WriteBehind();
+    private Upsert upsert = new Upsert();
+
+    public enum JournalMode {
+        PER_RECORD,
+        WRITE_BEHIND,
+        UPSERT
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class WriteBehind {
+        // flush a partition buffer once this many events are pending
+        private int batchSize = 500;
+        // flush a partition buffer once its oldest pending event is this old
+        private Duration maxDelay = Duration.ofMillis(200);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Upsert {
+        // records still in flight after this long get their intermediate state journaled
+        private Duration intermediateStateThreshold = Duration.ofMillis(500);
+    }
+}
@@ -4,10 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.data.domain.Limit;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Slf4j
 @RequiredArgsConstructor
 @Transactional
@@ -52,6 +56,42 @@ public class JpaEventService<K, V> implements EventService<K, V> {
         return false;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findProcessedOffsets(String topic, int partition, long fromOffset, int limit) {
+        return eventRepository.findOffsets(topic, partition, fromOffset, EventStatus.FINAL, Limit.of(limit));
+    }
+
+    @Override
+    public void saveEvents(List<ConsumerRecord<K, V>> records) {
+        try {
+            List<EventEntity> events = new ArrayList<>(records.size());
+            for (ConsumerRecord<K, V> record : records) {
+                events.add(createEventEntity(record));
+            }
+            eventRepository.saveAll(events);
+            log.debug("Saved {} events", events.size());
+        } catch (Exception e) {
+            log.error("Error saving events", e);
+            throw new RuntimeException("Failed to save events", e);
+        }
+    }
+
+    @Override
+    public void updateEventsStateToProcessing(List<ConsumerRecord<K, V>> records) {
+        records.forEach(record -> updateEventState(record, EventStatus.PROCESSING, null));
+    }
+
+    @Override
+    public void updateEventsStateToConsumedSuccessfully(List<ConsumerRecord<K, V>> records) {
+        records.forEach(record -> updateEventState(record, EventStatus.CONSUMED_SUCCESSFULLY, null));
+    }
+
+    @Override
+    public void updateEventsStateToConsumedFailure(List<ConsumerRecord<K, V>> records, Throwable error) {
+        records.forEach(record -> updateEventState(record, EventStatus.CONSUMED_FAILURE, error.getMessage()));
+    }
+
     private EventEntity createEventEntity(ConsumerRecord<K, V> record) throws Exception {
         return EventEntity.builder()
                 .topic(record.topic())
@@ -0,0 +1,27 @@
+package dev.shubham.labs.kafka.xconsumer.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.Map;
+
+class OnJournalModeCondition extends SpringBootCondition {
+
+    private static final String MODE_PROPERTY = "event.storage.mode";
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnJournalMode.class.getName());
+        EventStorageProps.JournalMode required = (EventStorageProps.JournalMode) attributes.get("value");
+        // binding fails on values the enum doesn't accept rather than silently leaving no EventService
+        EventStorageProps.JournalMode mode = Binder.get(context.getEnvironment())
+                .bind(MODE_PROPERTY, EventStorageProps.JournalMode.class)
+                .orElse(EventStorageProps.JournalMode.PER_RECORD);
+        return mode == required
+                ? ConditionOutcome.match(MODE_PROPERTY + " is " + mode)
+                : ConditionOutcome.noMatch(MODE_PROPERTY + " is " + mode + ", not " + required);
+    }
+}
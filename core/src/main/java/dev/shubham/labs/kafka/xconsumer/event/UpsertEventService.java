@@ -0,0 +1,176 @@
+package dev.shubham.labs.kafka.xconsumer.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Writes each record to kafka_events once, in its final state, through a single upsert. RECEIVED and
+// PROCESSING are only tracked in memory and get journaled when a record stays in flight past the threshold.
+@Slf4j
+public class UpsertEventService<K, V> implements EventService<K, V>, AutoCloseable {
+
+    private final EventJdbcWriter writer;
+    private final TransactionTemplate transactionTemplate;
+    private final long thresholdNanos;
+    private final Map<EventKey, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdog;
+
+    public UpsertEventService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper, EventStorageProps.Upsert props) {
+        this.writer = new EventJdbcWriter(jdbcTemplate, objectMapper);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.thresholdNanos = props.getIntermediateStateThreshold().toNanos();
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("event-journal-watchdog").factory());
+        long interval = Math.max(1, props.getIntermediateStateThreshold().toMillis() / 2);
+        this.watchdog.scheduleWithFixedDelay(this::journalSlowRecords, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void saveEvent(ConsumerRecord<K, V> record) {
+        inFlight.put(EventKey.of(record), new InFlight(record));
+    }
+
+    @Override
+    public void updateEventStateToProcessing(ConsumerRecord<K, V> record) {
+        InFlight entry = inFlight.get(EventKey.of(record));
+        if (entry != null) {
+            entry.status = EventStatus.PROCESSING;
+        }
+    }
+
+    @Override
+    public void updateEventStateToConsumedSuccessfully(ConsumerRecord<K, V> record) {
+        complete(record, EventStatus.CONSUMED_SUCCESSFULLY, null);
+    }
+
+    @Override
+    public void updateEventStateToConsumedFailure(ConsumerRecord<K, V> record, Throwable error) {
+        complete(record, EventStatus.CONSUMED_FAILURE, error.getMessage());
+    }
+
+    @Override
+    public boolean isNoOp() {
+        return false;
+    }
+
+    @Override
+    public List<Long> findProcessedOffsets(String topic, int partition, long fromOffset, int limit) {
+        return writer.findProcessedOffsets(topic, partition, fromOffset, limit);
+    }
+
+    @Override
+    public void updateEventsStateToConsumedSuccessfully(List<ConsumerRecord<K, V>> records) {
+        completeAll(records, EventStatus.CONSUMED_SUCCESSFULLY, null);
+    }
+
+    @Override
+    public void updateEventsStateToConsumedFailure(List<ConsumerRecord<K, V>> records, Throwable error) {
+        completeAll(records, EventStatus.CONSUMED_FAILURE, error.getMessage());
+    }
+
+    @Override
+    public void close() {
+        watchdog.shutdown();
+    }
+
+    private void complete(ConsumerRecord<K, V> record, EventStatus status, String errorMessage) {
+        InFlight entry = inFlight.remove(EventKey.of(record));
+        if (entry == null) {
+            write(writer.toRow(record, status, errorMessage));
+            return;
+        }
+        entry.lock.lock();
+        try {
+            entry.completed = true;
+            write(writer.toRow(record, status, errorMessage));
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private void completeAll(List<ConsumerRecord<K, V>> records, EventStatus status, String errorMessage) {
+        List<InFlight> entries = new ArrayList<>(records.size());
+        List<EventRow> rows = new ArrayList<>(records.size());
+        for (ConsumerRecord<K, V> record : records) {
+            InFlight entry = inFlight.remove(EventKey.of(record));
+            if (entry != null) {
+                entries.add(entry);
+            }
+            rows.add(writer.toRow(record, status, errorMessage));
+        }
+        entries.forEach(entry -> entry.lock.lock());
+        try {
+            entries.forEach(entry -> entry.completed = true);
+            transactionTemplate.executeWithoutResult(tx -> writer.upsert(rows));
+        } catch (Exception e) {
+            log.error("Error upserting event states", e);
+            throw new RuntimeException("Failed to upsert event states", e);
+        } finally {
+            entries.forEach(entry -> entry.lock.unlock());
+        }
+    }
+
+    private void journalSlowRecords() {
+        long now = System.nanoTime();
+        for (InFlight entry : inFlight.values()) {
+            if (entry.journaled || now - entry.startedAt < thresholdNanos) {
+                continue;
+            }
+            entry.lock.lock();
+            try {
+                if (!entry.completed) {
+                    write(writer.toRow(entry.record, entry.status, null));
+                    entry.journaled = true;
+                }
+            } catch (Exception e) {
+                log.error("Failed to journal in-flight event for topic: {}, partition: {}, offset: {}",
+                        entry.record.topic(), entry.record.partition(), entry.record.offset(), e);
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    private void write(EventRow row) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.upsert(row));
+            log.debug("Upserted event status {} for topic: {}, partition: {}, offset: {}",
+                    row.status(), row.topic(), row.partition(), row.offset());
+        } catch (Exception e) {
+            log.error("Error upserting event state", e);
+            throw new RuntimeException("Failed to upsert event state", e);
+        }
+    }
+
+    private record EventKey(String topic, int partition, long offset) {
+        static EventKey of(ConsumerRecord<?, ?> record) {
+            return new EventKey(record.topic(), record.partition(), record.offset());
+        }
+    }
+
+    private final class InFlight {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ConsumerRecord<K, V> record;
+        private final long startedAt = System.nanoTime();
+        private volatile EventStatus status = EventStatus.RECEIVED;
+        private volatile boolean journaled;
+        private boolean completed;
+
+        private InFlight(ConsumerRecord<K, V> record) {
+            this.record = record;
+        }
+    }
+}
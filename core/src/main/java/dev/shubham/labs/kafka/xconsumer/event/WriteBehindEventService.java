@@ -0,0 +1,258 @@
+package dev.shubham.labs.kafka.xconsumer.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Buffers journal state changes per partition and writes them as JDBC batches on size or age thresholds.
+// Acknowledgments are held with the buffer and only released once their journal entries have committed.
+@Slf4j
+public class WriteBehindEventService<K, V> implements EventService<K, V>, ConsumerAwareRebalanceListener, AutoCloseable {
+
+    private final EventJdbcWriter writer;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    // one buffer per partition, so each is only ever fed by the consumer thread owning that partition
+    private final Map<TopicPartition, Buffer> buffers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public WriteBehindEventService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper, EventStorageProps.WriteBehind props) {
+        this.writer = new EventJdbcWriter(jdbcTemplate, objectMapper);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = props.getBatchSize();
+        this.maxDelayNanos = props.getMaxDelay().toNanos();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("event-journal-flusher").factory());
+        long interval = Math.max(1, props.getMaxDelay().toMillis() / 2);
+        this.flusher.scheduleWithFixedDelay(this::flushExpired, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void saveEvent(ConsumerRecord<K, V> record) {
+        bufferFor(record).put(writer.toRow(record, EventStatus.RECEIVED, null));
+    }
+
+    @Override
+    public void updateEventStateToProcessing(ConsumerRecord<K, V> record) {
+        updateEventState(record, EventStatus.PROCESSING, null);
+    }
+
+    @Override
+    public void updateEventStateToConsumedSuccessfully(ConsumerRecord<K, V> record) {
+        updateEventState(record, EventStatus.CONSUMED_SUCCESSFULLY, null);
+    }
+
+    @Override
+    public void updateEventStateToConsumedFailure(ConsumerRecord<K, V> record, Throwable error) {
+        updateEventState(record, EventStatus.CONSUMED_FAILURE, error.getMessage());
+    }
+
+    @Override
+    public void acknowledge(ConsumerRecord<K, V> record, Acknowledgment acknowledgment) {
+        Buffer buffer = bufferFor(record);
+        buffer.defer(acknowledgment);
+        if (buffer.size() >= batchSize) {
+            // the record has already been processed, so a failed write must not reach the listener; the rows
+            // and acks stay buffered for the scheduled flush to retry
+            try {
+                buffer.flush();
+            } catch (Exception e) {
+                log.error("Failed to flush event journal for partition {}, will retry",
+                        new TopicPartition(record.topic(), record.partition()), e);
+            }
+        }
+    }
+
+    @Override
+    public void acknowledge(List<ConsumerRecord<K, V>> records, Acknowledgment acknowledgment) {
+        // a batch is already a natural flush boundary, so flush its partitions before acking it as a whole
+        Set<TopicPartition> partitions = new HashSet<>();
+        for (ConsumerRecord<K, V> record : records) {
+            partitions.add(new TopicPartition(record.topic(), record.partition()));
+        }
+        for (TopicPartition partition : partitions) {
+            Buffer buffer = buffers.get(partition);
+            if (buffer != null) {
+                buffer.flush();
+            }
+        }
+        if (acknowledgment != null)
+            acknowledgment.acknowledge();
+    }
+
+    @Override
+    public boolean isNoOp() {
+        return false;
+    }
+
+    @Override
+    public List<Long> findProcessedOffsets(String topic, int partition, long fromOffset, int limit) {
+        return writer.findProcessedOffsets(topic, partition, fromOffset, limit);
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        // runs on the consumer thread before the container commits, so released acks make this commit
+        flushPartitions(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        flushPartitions(partitions);
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        flushPartitions(List.copyOf(buffers.keySet()));
+    }
+
+    private void updateEventState(ConsumerRecord<K, V> record, EventStatus status, String errorMessage) {
+        bufferFor(record).update(record, status, errorMessage);
+    }
+
+    private Buffer bufferFor(ConsumerRecord<K, V> record) {
+        return buffers.computeIfAbsent(new TopicPartition(record.topic(), record.partition()), tp -> new Buffer());
+    }
+
+    private void flushPartitions(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            Buffer buffer = buffers.get(partition);
+            if (buffer == null) {
+                continue;
+            }
+            try {
+                buffer.flush();
+                buffers.remove(partition, buffer);
+            } catch (Exception e) {
+                log.error("Failed to flush event journal for partition {}", partition, e);
+            }
+        }
+    }
+
+    private void flushExpired() {
+        long now = System.nanoTime();
+        buffers.forEach((partition, buffer) -> {
+            if (buffer.isExpired(now)) {
+                try {
+                    buffer.flush();
+                } catch (Exception e) {
+                    log.error("Failed to flush event journal for partition {}, will retry", partition, e);
+                }
+            }
+        });
+    }
+
+    private final class Buffer {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, EventRow> rows = new LinkedHashMap<>();
+        private List<Acknowledgment> acks = new ArrayList<>();
+        private long oldestNanos;
+
+        void put(EventRow row) {
+            lock.lock();
+            try {
+                markFirst();
+                rows.put(row.offset(), row);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void update(ConsumerRecord<K, V> record, EventStatus status, String errorMessage) {
+            lock.lock();
+            try {
+                markFirst();
+                EventRow pending = rows.get(record.offset());
+                // rows already flushed are re-upserted, which needs the serialized payload again
+                rows.put(record.offset(), pending != null
+                        ? pending.withStatus(status, errorMessage)
+                        : writer.toRow(record, status, errorMessage));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void defer(Acknowledgment acknowledgment) {
+            if (acknowledgment == null) {
+                return;
+            }
+            lock.lock();
+            try {
+                markFirst();
+                acks.add(acknowledgment);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return Math.max(rows.size(), acks.size());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isExpired(long now) {
+            lock.lock();
+            try {
+                return !isEmpty() && now - oldestNanos >= maxDelayNanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void flush() {
+            lock.lock();
+            try {
+                if (isEmpty()) {
+                    return;
+                }
+                if (!rows.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> writer.upsert(rows.values()));
+                    log.debug("Flushed {} journal entries", rows.size());
+                    rows.clear();
+                }
+                List<Acknowledgment> released = acks;
+                acks = new ArrayList<>();
+                released.forEach(Acknowledgment::acknowledge);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isEmpty() {
+            return rows.isEmpty() && acks.isEmpty();
+        }
+
+        private void markFirst() {
+            if (isEmpty()) {
+                oldestNanos = System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package dev.shubham.labs.kafka.xconsumer.lag;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ConsumerLag(String consumer, String groupId, long lag, double recordsPerSecond, double lagSeconds,
+                          List<PartitionLag> partitions, Instant updatedAt) {
+}
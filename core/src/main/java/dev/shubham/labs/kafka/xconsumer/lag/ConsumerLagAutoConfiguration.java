@@ -0,0 +1,32 @@
+package dev.shubham.labs.kafka.xconsumer.lag;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+@AutoConfiguration
+@ConditionalOnProperty(name = "kafka.consumer.lag.enabled", havingValue = "true", matchIfMissing = true)
+public class ConsumerLagAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ConsumerLagMonitor consumerLagMonitor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                 @Value("${kafka.consumer.lag.refresh-interval:10s}") Duration refreshInterval) {
+        return new ConsumerLagMonitor(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), refreshInterval);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnAvailableEndpoint
+    public ConsumerLagEndpoint consumerLagEndpoint(ConsumerLagMonitor consumerLagMonitor) {
+        return new ConsumerLagEndpoint(consumerLagMonitor);
+    }
+}
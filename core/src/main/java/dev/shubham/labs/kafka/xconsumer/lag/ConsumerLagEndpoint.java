@@ -0,0 +1,27 @@
+package dev.shubham.labs.kafka.xconsumer.lag;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.Map;
+
+@Endpoint(id = "kafkalag")
+public class ConsumerLagEndpoint {
+
+    private final ConsumerLagMonitor monitor;
+
+    public ConsumerLagEndpoint(ConsumerLagMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @ReadOperation
+    public Map<String, ConsumerLag> consumers() {
+        return monitor.snapshot();
+    }
+
+    @ReadOperation
+    public ConsumerLag consumer(@Selector String name) {
+        return monitor.snapshot(name);
+    }
+}
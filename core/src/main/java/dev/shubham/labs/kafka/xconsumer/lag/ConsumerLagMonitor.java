@@ -0,0 +1,249 @@
+package dev.shubham.labs.kafka.xconsumer.lag;
+
+import dev.shubham.labs.kafka.KafkaConsumerProps;
+import dev.shubham.labs.kafka.xconsumer.lifecycle.ContainerLifecycleStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Periodically reads committed and log-end offsets for the partitions each registered container owns and
+// publishes per-partition lag in records and in seconds. The rate behind lagSeconds is an exponentially
+// weighted average of committed offsets advancing between refreshes, so it reflects real drain speed.
+@Slf4j
+public class ConsumerLagMonitor implements SmartLifecycle {
+
+    private static final double RATE_SMOOTHING = 0.3;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration refreshInterval;
+    private final Map<String, MonitoredConsumer> consumers = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public ConsumerLagMonitor(MeterRegistry meterRegistry, Duration refreshInterval) {
+        this.meterRegistry = meterRegistry;
+        this.refreshInterval = refreshInterval;
+    }
+
+    // Returns the name the consumer is reported under
+    public String register(KafkaConsumerProps props, MessageListenerContainer container,
+                           ContainerLifecycleStrategy strategy) {
+        String name = props.getConsumerName() != null ? props.getConsumerName() : container.getListenerId();
+        consumers.compute(name, (key, previous) -> {
+            if (previous != null) {
+                previous.close();
+            }
+            return new MonitoredConsumer(name, props, container, strategy);
+        });
+        return name;
+    }
+
+    // Called on the monitor thread with every refreshed snapshot of the named consumer
+    public void addListener(String consumerName, Consumer<ConsumerLag> listener) {
+        MonitoredConsumer consumer = consumers.get(consumerName);
+        if (consumer == null) throw new IllegalArgumentException("No consumer registered as " + consumerName);
+        consumer.listeners.add(listener);
+    }
+
+    public Map<String, ConsumerLag> snapshot() {
+        Map<String, ConsumerLag> snapshot = new LinkedHashMap<>();
+        consumers.forEach((name, consumer) -> {
+            if (consumer.latest != null) {
+                snapshot.put(name, consumer.latest);
+            }
+        });
+        return snapshot;
+    }
+
+    public ConsumerLag snapshot(String consumerName) {
+        MonitoredConsumer consumer = consumers.get(consumerName);
+        return consumer != null ? consumer.latest : null;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("kafka-consumer-lag-monitor").factory());
+        scheduler.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        consumers.values().forEach(MonitoredConsumer::close);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void refresh() {
+        for (MonitoredConsumer consumer : consumers.values()) {
+            try {
+                consumer.refresh();
+            } catch (Exception e) {
+                log.error("Failed to refresh lag for consumer {}", consumer.name, e);
+            }
+        }
+    }
+
+    private class MonitoredConsumer {
+        private final String name;
+        private final String groupId;
+        private final MessageListenerContainer container;
+        private final ContainerLifecycleStrategy strategy;
+        private final Admin admin;
+        private final MultiGauge lagRecords;
+        private final MultiGauge lagSeconds;
+        private final MultiGauge paused;
+        private final Map<TopicPartition, long[]> previousCommits = new HashMap<>();
+        private final Map<TopicPartition, Double> rates = new HashMap<>();
+        private final List<Consumer<ConsumerLag>> listeners = new CopyOnWriteArrayList<>();
+        private volatile ConsumerLag latest;
+
+        MonitoredConsumer(String name, KafkaConsumerProps props, MessageListenerContainer container,
+                          ContainerLifecycleStrategy strategy) {
+            this.name = name;
+            this.groupId = props.getGroupId();
+            this.container = container;
+            this.strategy = strategy;
+            this.admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, props.getBootstrapServers(),
+                    AdminClientConfig.CLIENT_ID_CONFIG, name + "-lag-monitor"));
+            this.lagRecords = MultiGauge.builder("kafka.consumer.lag.records")
+                    .description("Records between the committed offset and the log end")
+                    .register(meterRegistry);
+            this.lagSeconds = MultiGauge.builder("kafka.consumer.lag.seconds")
+                    .description("Estimated time to drain the lag at the observed processing rate")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            this.paused = MultiGauge.builder("kafka.consumer.partition.paused")
+                    .register(meterRegistry);
+        }
+
+        void refresh() throws Exception {
+            Collection<TopicPartition> assigned = container.getAssignedPartitions();
+            if (assigned == null || assigned.isEmpty()) {
+                publish(List.of());
+                return;
+            }
+            long timeout = refreshInterval.toMillis();
+            Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+                    .partitionsToOffsetAndMetadata().get(timeout, TimeUnit.MILLISECONDS);
+            Map<TopicPartition, OffsetSpec> latestSpec = new HashMap<>();
+            assigned.forEach(partition -> latestSpec.put(partition, OffsetSpec.latest()));
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> logEnd = admin.listOffsets(latestSpec)
+                    .all().get(timeout, TimeUnit.MILLISECONDS);
+
+            long now = System.nanoTime();
+            List<PartitionLag> partitions = new ArrayList<>(assigned.size());
+            for (TopicPartition partition : assigned) {
+                OffsetAndMetadata commit = committed.get(partition);
+                long committedOffset = commit != null ? commit.offset() : 0;
+                long endOffset = logEnd.containsKey(partition) ? logEnd.get(partition).offset() : committedOffset;
+                long lag = Math.max(0, endOffset - committedOffset);
+                double rate = updateRate(partition, committedOffset, now);
+                partitions.add(new PartitionLag(partition.topic(), partition.partition(), committedOffset, endOffset,
+                        lag, rate, lagSeconds(lag, rate), isPaused(partition)));
+            }
+            previousCommits.keySet().retainAll(assigned);
+            rates.keySet().retainAll(assigned);
+            publish(partitions);
+        }
+
+        private double updateRate(TopicPartition partition, long committedOffset, long now) {
+            long[] previous = previousCommits.put(partition, new long[]{committedOffset, now});
+            if (previous == null) {
+                return rates.getOrDefault(partition, Double.NaN);
+            }
+            double seconds = (now - previous[1]) / 1e9;
+            double observed = seconds > 0 ? Math.max(0, committedOffset - previous[0]) / seconds : 0;
+            Double smoothed = rates.get(partition);
+            double rate = smoothed == null || smoothed.isNaN()
+                    ? observed
+                    : RATE_SMOOTHING * observed + (1 - RATE_SMOOTHING) * smoothed;
+            rates.put(partition, rate);
+            return rate;
+        }
+
+        private boolean isPaused(TopicPartition partition) {
+            return container.isPauseRequested() || container.isPartitionPauseRequested(partition)
+                    || (strategy != null && strategy.isPaused(partition));
+        }
+
+        private void publish(List<PartitionLag> partitions) {
+            long totalLag = 0;
+            double totalRate = 0;
+            for (PartitionLag partition : partitions) {
+                totalLag += partition.lag();
+                totalRate += Double.isNaN(partition.recordsPerSecond()) ? 0 : partition.recordsPerSecond();
+            }
+            ConsumerLag snapshot = new ConsumerLag(name, groupId, totalLag, totalRate, lagSeconds(totalLag, totalRate),
+                    List.copyOf(partitions), Instant.now());
+            latest = snapshot;
+            for (Consumer<ConsumerLag> listener : listeners) {
+                try {
+                    listener.accept(snapshot);
+                } catch (RuntimeException e) {
+                    log.error("Lag listener failed for consumer {}", name, e);
+                }
+            }
+
+            lagRecords.register(partitions.stream()
+                    .map(p -> MultiGauge.Row.of(tags(p), p.lag()))
+                    .toList(), true);
+            lagSeconds.register(partitions.stream()
+                    .map(p -> MultiGauge.Row.of(tags(p), p.lagSeconds()))
+                    .toList(), true);
+            paused.register(partitions.stream()
+                    .map(p -> MultiGauge.Row.of(tags(p), p.paused() ? 1 : 0))
+                    .toList(), true);
+        }
+
+        private Tags tags(PartitionLag partition) {
+            return Tags.of("consumer", name, "topic", partition.topic(),
+                    "partition", String.valueOf(partition.partition()));
+        }
+
+        private double lagSeconds(long lag, double rate) {
+            if (lag == 0) {
+                return 0;
+            }
+            return rate > 0 ? lag / rate : Double.NaN;
+        }
+
+        void close() {
+            lagRecords.register(List.of(), true);
+            lagSeconds.register(List.of(), true);
+            paused.register(List.of(), true);
+            admin.close(Duration.ofSeconds(5));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package dev.shubham.labs.kafka.xconsumer.lag;
+
+import dev.shubham.labs.kafka.KafkaConsumerProps;
+import dev.shubham.labs.kafka.xconsumer.dispatch.KeyOrderedDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Resizes a KeyOrderedDispatcher from lag snapshots. Workers double after `breaches` consecutive snapshots
+// whose drain time exceeds targetLag, unless per-record latency is already above maxRecordLatency, and shrink
+// by a quarter after as many snapshots draining within scaleDownLag. Changes are at least `cooldown` apart.
+// A backlog with no observed commit rate, or with paused partitions, means the consumer is stalled (breaker
+// open, dependency down) rather than short of workers, so the size holds until records flow again.
+// Only the in-process worker count moves, so scaling never triggers a rebalance.
+@Slf4j
+public class LagAutoscaler implements Consumer<ConsumerLag> {
+
+    private final String consumerName;
+    private final KeyOrderedDispatcher<?, ?> dispatcher;
+    private final KafkaConsumerProps.Autoscaling props;
+    private final MeterRegistry meterRegistry;
+    private int overTarget;
+    private int underTarget;
+    private long lastChangeNanos;
+    private long previousCount;
+    private double previousTotalNanos;
+
+    public LagAutoscaler(String consumerName, KeyOrderedDispatcher<?, ?> dispatcher,
+                         KafkaConsumerProps.Autoscaling props, MeterRegistry meterRegistry) {
+        if (props.getMinInFlight() < 1 || props.getMaxInFlight() < props.getMinInFlight())
+            throw new IllegalArgumentException("Autoscaling needs 1 <= minInFlight <= maxInFlight");
+        this.consumerName = consumerName;
+        this.dispatcher = dispatcher;
+        this.props = props;
+        this.meterRegistry = meterRegistry;
+        this.lastChangeNanos = System.nanoTime() - props.getCooldown().toNanos();
+    }
+
+    @Override
+    public void accept(ConsumerLag lag) {
+        double latencyNanos = recentRecordLatencyNanos();
+        boolean stalled = lag.lag() > 0
+                && (!(lag.recordsPerSecond() > 0) || lag.partitions().stream().anyMatch(PartitionLag::paused));
+        if (stalled) {
+            overTarget = 0;
+            underTarget = 0;
+            return;
+        }
+        double drainSeconds = lag.lag() == 0 ? 0 : lag.lagSeconds();
+        boolean behind = drainSeconds > props.getTargetLag().toSeconds();
+        boolean caughtUp = drainSeconds <= props.getScaleDownLag().toSeconds();
+        overTarget = behind ? overTarget + 1 : 0;
+        underTarget = caughtUp ? underTarget + 1 : 0;
+
+        if (System.nanoTime() - lastChangeNanos < props.getCooldown().toNanos()) {
+            return;
+        }
+        int current = dispatcher.getMaxInFlight();
+        if (overTarget >= props.getBreaches()) {
+            if (latencyNanos > props.getMaxRecordLatency().toNanos()) {
+                log.warn("Consumer {} is behind ({} records) but records already take {} ms, not adding workers",
+                        consumerName, lag.lag(), TimeUnit.NANOSECONDS.toMillis((long) latencyNanos));
+                return;
+            }
+            resize(current, Math.min(props.getMaxInFlight(), Math.max(current * 2, props.getMinInFlight())), lag);
+        } else if (underTarget >= props.getBreaches()) {
+            resize(current, Math.max(props.getMinInFlight(), current - Math.max(1, current / 4)), lag);
+        }
+    }
+
+    private void resize(int current, int target, ConsumerLag lag) {
+        overTarget = 0;
+        underTarget = 0;
+        if (target == current) {
+            return;
+        }
+        log.info("Scaling consumer {} from {} to {} in-flight records (lag {} records, ~{}s to drain)",
+                consumerName, current, target, lag.lag(), lag.lagSeconds());
+        dispatcher.setMaxInFlight(target);
+        lastChangeNanos = System.nanoTime();
+    }
+
+    // Mean process-stage time since the previous snapshot, 0 when unknown
+    private double recentRecordLatencyNanos() {
+        if (meterRegistry == null) {
+            return 0;
+        }
+        long count = 0;
+        double totalNanos = 0;
+        for (Timer timer : meterRegistry.find("kafka.consumer.stage")
+                .tags("consumer", consumerName, "stage", "process")
+                .timers()) {
+            count += timer.count();
+            totalNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+        long records = count - previousCount;
+        double nanos = totalNanos - previousTotalNanos;
+        previousCount = count;
+        previousTotalNanos = totalNanos;
+        return records > 0 ? nanos / records : 0;
+    }
+}
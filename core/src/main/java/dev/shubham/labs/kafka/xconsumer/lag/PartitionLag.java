@@ -0,0 +1,6 @@
+package dev.shubham.labs.kafka.xconsumer.lag;
+
+// lagSeconds is lag divided by the observed commit rate, NaN until the partition has been seen committing
+public record PartitionLag(String topic, int partition, long committedOffset, long logEndOffset, long lag,
+                           double recordsPerSecond, double lagSeconds, boolean paused) {
+}
@@ -1,5 +1,6 @@
 package dev.shubham.labs.kafka.xconsumer.lifecycle;
 
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.listener.MessageListenerContainer;
 
 public interface ContainerLifecycleStrategy {
@@ -8,4 +9,13 @@ public interface ContainerLifecycleStrategy {
     void onCircuitBreakerOpen(MessageListenerContainer container);
 
     void onCircuitBreakerClose(MessageListenerContainer container);
-}
\ No newline at end of file
+
+    // Strategies that resume gradually can treat half-open differently from closed
+    default void onCircuitBreakerHalfOpen(MessageListenerContainer container) {
+        onCircuitBreakerClose(container);
+    }
+
+    default boolean isPaused(TopicPartition partition) {
+        return false;
+    }
+}
@@ -2,6 +2,7 @@ package dev.shubham.labs.kafka.xconsumer.lifecycle;
 
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -20,4 +21,21 @@ public class ContainerStrategyFactory {
         }
         return new NoOpContainerStrategy();
     }
-}
\ No newline at end of file
+
+    public static ContainerLifecycleStrategy createPartitionAware(Map<String, CircuitBreaker> circuitBreakers,
+                                                                  double probeFraction, Duration rampInterval) {
+        return circuitBreakers != null && !circuitBreakers.isEmpty()
+                ? new PartitionAwareContainerStrategy(circuitBreakers, probeFraction, rampInterval)
+                : new NoOpContainerStrategy();
+    }
+
+    public static ContainerLifecycleStrategy createPartitionAware(CircuitBreaker singleBreaker, double probeFraction,
+                                                                  Duration rampInterval) {
+        if (singleBreaker != null) {
+            Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+            breakers.put("default", singleBreaker);
+            return new PartitionAwareContainerStrategy(breakers, probeFraction, rampInterval);
+        }
+        return new NoOpContainerStrategy();
+    }
+}
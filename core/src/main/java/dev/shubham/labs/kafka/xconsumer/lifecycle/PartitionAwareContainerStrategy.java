@@ -0,0 +1,194 @@
+package dev.shubham.labs.kafka.xconsumer.lifecycle;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Pauses individual partitions instead of the whole container. When the breakers go half-open only a probe
+// share of the partitions resumes, and once they close the rest come back in doubling steps every
+// rampInterval, so a recovering dependency is not hit with the whole backlog at once.
+@Slf4j
+public class PartitionAwareContainerStrategy implements ContainerLifecycleStrategy, ConsumerAwareRebalanceListener {
+
+    private final Map<String, CircuitBreaker> circuitBreakers;
+    private final double probeFraction;
+    private final Duration rampInterval;
+    private final ScheduledExecutorService scheduler;
+    // insertion ordered so partitions resume in the order they were paused
+    private final Set<TopicPartition> pausedPartitions = new LinkedHashSet<>();
+    private volatile MessageListenerContainer container;
+    private ScheduledFuture<?> ramp;
+    private int rampStep;
+
+    public PartitionAwareContainerStrategy(Map<String, CircuitBreaker> circuitBreakers, double probeFraction,
+                                           Duration rampInterval) {
+        if (probeFraction <= 0 || probeFraction > 1)
+            throw new IllegalArgumentException("probeFraction must be in (0, 1]");
+        this.circuitBreakers = new ConcurrentHashMap<>(circuitBreakers);
+        this.probeFraction = probeFraction;
+        this.rampInterval = rampInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("partition-resume-ramp").factory());
+    }
+
+    @Override
+    public void registerContainer(MessageListenerContainer container) {
+        this.container = container;
+        circuitBreakers.forEach((name, breaker) -> breaker.getEventPublisher()
+                .onStateTransition(event -> {
+                    if (this.container != null) {
+                        handleStateTransition(name, event.getStateTransition());
+                    }
+                }));
+        if (aggregateState() == CircuitBreaker.State.OPEN) {
+            onCircuitBreakerOpen(container);
+        }
+    }
+
+    private synchronized void handleStateTransition(String breakerName, CircuitBreaker.StateTransition transition) {
+        log.info("Circuit breaker {} transitioned {}", breakerName, transition);
+        switch (aggregateState()) {
+            case OPEN -> onCircuitBreakerOpen(container);
+            case HALF_OPEN -> onCircuitBreakerHalfOpen(container);
+            default -> onCircuitBreakerClose(container);
+        }
+    }
+
+    private CircuitBreaker.State aggregateState() {
+        boolean halfOpen = false;
+        for (CircuitBreaker breaker : circuitBreakers.values()) {
+            switch (breaker.getState()) {
+                case OPEN, FORCED_OPEN -> {
+                    return CircuitBreaker.State.OPEN;
+                }
+                case HALF_OPEN -> halfOpen = true;
+                default -> {
+                }
+            }
+        }
+        return halfOpen ? CircuitBreaker.State.HALF_OPEN : CircuitBreaker.State.CLOSED;
+    }
+
+    @Override
+    public synchronized void onCircuitBreakerOpen(MessageListenerContainer container) {
+        cancelRamp();
+        Collection<TopicPartition> assigned = assignedPartitions(container);
+        log.warn("Circuit breaker open, pausing {} partitions", assigned.size());
+        for (TopicPartition partition : assigned) {
+            if (pausedPartitions.add(partition)) {
+                container.pausePartition(partition);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onCircuitBreakerHalfOpen(MessageListenerContainer container) {
+        cancelRamp();
+        int total = pausedPartitions.size() + countResumed(container);
+        int probes = Math.max(1, (int) Math.ceil(total * probeFraction));
+        int toResume = probes - countResumed(container);
+        if (toResume > 0) {
+            log.info("Circuit breaker half-open, resuming {} of {} partitions as probe", toResume, total);
+            resume(container, toResume);
+        }
+    }
+
+    @Override
+    public synchronized void onCircuitBreakerClose(MessageListenerContainer container) {
+        if (pausedPartitions.isEmpty() || ramp != null) {
+            return;
+        }
+        log.info("Circuit breaker closed, ramping up {} paused partitions", pausedPartitions.size());
+        rampStep = Math.max(1, countResumed(container));
+        ramp = scheduler.scheduleWithFixedDelay(() -> rampUp(container), 0,
+                rampInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized boolean isPaused(TopicPartition partition) {
+        return pausedPartitions.contains(partition);
+    }
+
+    @Override
+    public synchronized void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        // partitions handed over mid-outage start paused and join the ramp with the rest
+        MessageListenerContainer current = container;
+        if (current == null || (pausedPartitions.isEmpty() && aggregateState() == CircuitBreaker.State.CLOSED)) {
+            return;
+        }
+        for (TopicPartition partition : partitions) {
+            if (pausedPartitions.add(partition)) {
+                current.pausePartition(partition);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer,
+                                                             Collection<TopicPartition> partitions) {
+        pausedPartitions.removeAll(partitions);
+    }
+
+    @Override
+    public synchronized void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        pausedPartitions.removeAll(partitions);
+    }
+
+    private synchronized void rampUp(MessageListenerContainer container) {
+        if (aggregateState() != CircuitBreaker.State.CLOSED) {
+            cancelRamp();
+            return;
+        }
+        resume(container, rampStep);
+        rampStep *= 2;
+        if (pausedPartitions.isEmpty()) {
+            log.info("All partitions resumed");
+            cancelRamp();
+        }
+    }
+
+    private void resume(MessageListenerContainer container, int count) {
+        Iterator<TopicPartition> iterator = pausedPartitions.iterator();
+        for (int i = 0; i < count && iterator.hasNext(); i++) {
+            container.resumePartition(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private int countResumed(MessageListenerContainer container) {
+        int resumed = 0;
+        for (TopicPartition partition : assignedPartitions(container)) {
+            if (!pausedPartitions.contains(partition)) {
+                resumed++;
+            }
+        }
+        return resumed;
+    }
+
+    private Collection<TopicPartition> assignedPartitions(MessageListenerContainer container) {
+        Collection<TopicPartition> assigned = container.getAssignedPartitions();
+        return assigned != null ? assigned : Set.of();
+    }
+
+    private void cancelRamp() {
+        if (ramp != null) {
+            ramp.cancel(false);
+            ramp = null;
+        }
+    }
+}
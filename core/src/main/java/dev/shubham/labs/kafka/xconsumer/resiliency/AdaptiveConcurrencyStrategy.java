@@ -0,0 +1,122 @@
+package dev.shubham.labs.kafka.xconsumer.resiliency;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Vegas-style concurrency limit. Each call's latency is compared with the lowest latency seen so far to
+// estimate how many calls are queueing at the backend: the limit grows while that estimate stays below
+// alpha, shrinks once it passes beta and is cut multiplicatively on failures. Callers over the limit wait,
+// so a slow backend lowers throughput gradually well before the circuit breaker sees enough failures to trip.
+@Slf4j
+public class AdaptiveConcurrencyStrategy implements ResilienceStrategy {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int alpha;
+    private final int beta;
+    private final double backoffRatio;
+    private final int probeInterval;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samplesSinceProbe;
+
+    @Builder
+    public AdaptiveConcurrencyStrategy(Integer initialLimit, Integer minLimit, Integer maxLimit,
+                                       Integer alpha, Integer beta, Double backoffRatio, Integer probeInterval) {
+        this.minLimit = minLimit != null ? minLimit : 1;
+        this.maxLimit = maxLimit != null ? maxLimit : 200;
+        this.alpha = alpha != null ? alpha : 3;
+        this.beta = beta != null ? beta : 6;
+        this.backoffRatio = backoffRatio != null ? backoffRatio : 0.9;
+        // re-learn the no-load latency now and then so a permanently slower backend does not pin the limit low
+        this.probeInterval = probeInterval != null ? probeInterval : 1000;
+        this.limit = Math.clamp(initialLimit != null ? initialLimit : 20, this.minLimit, this.maxLimit);
+        if (this.minLimit < 1 || this.minLimit > this.maxLimit)
+            throw new IllegalArgumentException("minLimit must be between 1 and maxLimit");
+        if (this.alpha >= this.beta) throw new IllegalArgumentException("alpha must be lower than beta");
+    }
+
+    @Override
+    public void executeWithResilience(Runnable action) throws Throwable {
+        acquire();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            action.run();
+            failed = false;
+        } finally {
+            release(System.nanoTime() - start, failed);
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                permitAvailable.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long rttNanos, boolean failed) {
+        lock.lock();
+        try {
+            int sampledInFlight = inFlight;
+            inFlight--;
+            int previous = (int) limit;
+            limit = failed ? Math.max(minLimit, limit * backoffRatio) : nextLimit(rttNanos, sampledInFlight);
+            if ((int) limit != previous) {
+                log.debug("Concurrency limit changed from {} to {}", previous, (int) limit);
+            }
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double nextLimit(long rttNanos, int sampledInFlight) {
+        if (++samplesSinceProbe >= probeInterval) {
+            samplesSinceProbe = 0;
+            minRttNanos = rttNanos;
+        } else if (rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+        double queued = limit * (1 - (double) minRttNanos / Math.max(rttNanos, 1));
+        if (queued > beta) {
+            return Math.max(minLimit, limit - 1);
+        }
+        // an under-used limit says nothing about the backend's capacity, so only grow when it was saturated
+        if (queued < alpha && sampledInFlight * 2 >= limit) {
+            return Math.min(maxLimit, limit + 1);
+        }
+        return limit;
+    }
+}
@@ -17,4 +17,19 @@ public class ResilienceStrategyFactory {
         }
         return new NoOpResilienceStrategy();
     }
-}
\ No newline at end of file
+
+    // Circuit breaker outermost and the limiter innermost, so every retry attempt takes a slot and is measured
+    public static ResilienceStrategy createStrategy(
+            CircuitBreaker circuitBreaker,
+            Retry retry,
+            AdaptiveConcurrencyStrategy concurrencyLimiter) {
+        ResilienceStrategy strategy = createStrategy(circuitBreaker, retry);
+        if (concurrencyLimiter == null) {
+            return strategy;
+        }
+        if (circuitBreaker == null && retry == null) {
+            return concurrencyLimiter;
+        }
+        return strategy.andThen(concurrencyLimiter);
+    }
+}
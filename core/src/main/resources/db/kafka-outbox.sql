@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS kafka_outbox
+(
+    id          BIGSERIAL PRIMARY KEY,
+    topic       VARCHAR(255) NOT NULL,
+    message_key BYTEA,
+    payload     BYTEA,
+    headers     BYTEA,
+    created_at  TIMESTAMP    NOT NULL,
+    txid        XID8         NOT NULL DEFAULT pg_current_xact_id()
+);
+
+-- tables created before the relay ordered by writing transaction
+ALTER TABLE kafka_outbox ADD COLUMN IF NOT EXISTS txid XID8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX IF NOT EXISTS idx_kafka_outbox_topic_id ON kafka_outbox (topic, id);
+CREATE INDEX IF NOT EXISTS idx_kafka_outbox_topic_txid ON kafka_outbox (topic, txid, id);
@@ -0,0 +1,120 @@
+package dev.shubham.labs.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityStoreTest {
+
+    private InMemoryRedis redis;
+    private AvailabilityStore inventoryPod;
+    private AvailabilityStore productPod;
+
+    @BeforeEach
+    void setUp() {
+        redis = new InMemoryRedis();
+        AvailabilityProps props = new AvailabilityProps();
+        inventoryPod = new AvailabilityStore(redis, props);
+        productPod = new AvailabilityStore(redis, props);
+    }
+
+    @Test
+    void readsWrittenLevelsInOneBatch() {
+        inventoryPod.putAll(Map.of("beer-1", 5, "beer-2", 0));
+
+        Map<String, Integer> levels = productPod.getAll(List.of("beer-1", "beer-2", "beer-3"));
+
+        assertThat(levels).containsOnly(Map.entry("beer-1", 5), Map.entry("beer-2", 0));
+        assertThat(redis.reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void servesRepeatedReadsFromTheNearCache() {
+        inventoryPod.put("beer-1", 5);
+
+        productPod.getAll(List.of("beer-1"));
+        productPod.getAll(List.of("beer-1"));
+
+        assertThat(redis.reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void writesInvalidateOtherPodsNearCaches() {
+        inventoryPod.put("beer-1", 5);
+        assertThat(productPod.getAll(List.of("beer-1"))).containsEntry("beer-1", 5);
+
+        inventoryPod.put("beer-1", 4);
+
+        assertThat(productPod.getAll(List.of("beer-1"))).containsEntry("beer-1", 4);
+        assertThat(redis.reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void writerKeepsItsOwnNearCacheEntries() {
+        inventoryPod.put("beer-1", 5);
+
+        assertThat(inventoryPod.getAll(List.of("beer-1"))).containsEntry("beer-1", 5);
+        assertThat(redis.reads.get()).isZero();
+    }
+
+    @Test
+    void returnsNearCacheHitsWhenRedisIsDown() {
+        inventoryPod.put("beer-1", 5);
+        productPod.getAll(List.of("beer-1"));
+        redis.down = true;
+
+        Map<String, Integer> levels = productPod.getAll(List.of("beer-1", "beer-2"));
+
+        assertThat(levels).containsOnly(Map.entry("beer-1", 5));
+    }
+
+    // In-process stand-in for Redis: a key space, MGET-style reads and synchronous pub/sub fan-out
+    private static class InMemoryRedis implements AvailabilityBackend {
+        private final Map<String, Integer> values = new ConcurrentHashMap<>();
+        private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+        private final AtomicInteger reads = new AtomicInteger();
+        private volatile boolean down;
+
+        @Override
+        public void write(Map<String, Integer> levels, String invalidation) {
+            checkUp();
+            values.putAll(levels);
+            subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+        }
+
+        @Override
+        public Map<String, Integer> read(Collection<String> productIds) {
+            checkUp();
+            reads.incrementAndGet();
+            Map<String, Integer> found = new HashMap<>();
+            productIds.forEach(productId -> {
+                Integer value = values.get(productId);
+                if (value != null) {
+                    found.put(productId, value);
+                }
+            });
+            return found;
+        }
+
+        @Override
+        public void subscribe(Consumer<String> invalidationListener) {
+            subscribers.add(invalidationListener);
+        }
+
+        private void checkUp() {
+            if (down) {
+                throw new IllegalStateException("Redis unavailable");
+            }
+        }
+    }
+}
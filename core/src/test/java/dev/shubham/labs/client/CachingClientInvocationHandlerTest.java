@@ -0,0 +1,136 @@
+package dev.shubham.labs.client;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PostExchange;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingClientInvocationHandlerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Queue<Runnable> refreshes = new ConcurrentLinkedQueue<>();
+    private final StubStock stock = new StubStock();
+    private final StockClient client;
+
+    CachingClientInvocationHandlerTest() {
+        ClientProps.Cache props = new ClientProps.Cache();
+        props.setEnabled(true);
+        props.setRefreshAfterWrite(Duration.ofSeconds(10));
+        props.setExpireAfterWrite(Duration.ofSeconds(30));
+        // background refreshes wait in a queue until the test runs them
+        client = CachingClientInvocationHandler.wrap(StockClient.class, stock, props, null, nanos::get, refreshes::add);
+    }
+
+    @Test
+    void servesRepeatedReadsFromTheCache() {
+        assertThat(client.find("beer").getBody()).isEqualTo("beer:1");
+        assertThat(client.find("beer").getBody()).isEqualTo("beer:1");
+        assertThat(stock.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void missesForOtherArgumentsAndNonGetMethods() {
+        client.find("beer");
+        client.find("wine");
+        client.reserve("beer");
+        client.reserve("beer");
+
+        assertThat(stock.calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    void servesTheStaleValueWhileRefreshing() {
+        client.find("beer");
+        stock.version.set(2);
+        advance(Duration.ofSeconds(11));
+
+        assertThat(client.find("beer").getBody()).isEqualTo("beer:1");
+        runRefreshes();
+        assertThat(client.find("beer").getBody()).isEqualTo("beer:2");
+        assertThat(stock.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void servesCachedReadsWhileTheBreakerIsOpen() {
+        client.find("beer");
+        stock.open.set(true);
+        advance(Duration.ofSeconds(11));
+
+        assertThat(client.find("beer").getBody()).isEqualTo("beer:1");
+        // the failed refresh keeps the entry
+        runRefreshes();
+        assertThat(client.find("beer").getBody()).isEqualTo("beer:1");
+        assertThatThrownBy(() -> client.find("wine")).isInstanceOf(CallNotPermittedException.class);
+    }
+
+    @Test
+    void doesNotKeepErrorResponses() {
+        stock.failing.set(true);
+        assertThat(client.find("beer").getStatusCode().is5xxServerError()).isTrue();
+
+        stock.failing.set(false);
+        assertThat(client.find("beer").getBody()).isEqualTo("beer:1");
+        assertThat(stock.calls.get()).isEqualTo(2);
+    }
+
+    private void runRefreshes() {
+        assertThat(refreshes).isNotEmpty();
+        for (Runnable refresh; (refresh = refreshes.poll()) != null; ) {
+            refresh.run();
+        }
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    @HttpExchange("/stock")
+    interface StockClient {
+
+        @GetExchange
+        ResponseEntity<String> find(@RequestParam("productId") String productId);
+
+        @PostExchange
+        ResponseEntity<String> reserve(@RequestBody String productId);
+    }
+
+    private static class StubStock implements StockClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger version = new AtomicInteger(1);
+        private final AtomicBoolean open = new AtomicBoolean();
+        private final AtomicBoolean failing = new AtomicBoolean();
+
+        @Override
+        public ResponseEntity<String> find(String productId) {
+            if (open.get()) {
+                throw CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("stock"));
+            }
+            calls.incrementAndGet();
+            return failing.get()
+                    ? ResponseEntity.internalServerError().build()
+                    : ResponseEntity.ok(productId + ":" + version.get());
+        }
+
+        @Override
+        public ResponseEntity<String> reserve(String productId) {
+            calls.incrementAndGet();
+            return ResponseEntity.ok(productId);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package dev.shubham.labs.kafka.producer;
+
+import dev.shubham.labs.kafka.KafkaProducerProps;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KafkaOutboxRelayTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<byte[], byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+    private final ResultSet lockResult = mock(ResultSet.class);
+    private KafkaOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+
+        relay = new KafkaOutboxRelay("orders", new KafkaProducerProps.Outbox(), jdbcTemplate,
+                mock(PlatformTransactionManager.class), kafkaTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void deletesEveryAcknowledgedRowAndKeepsOnlyTheFailedOne() {
+        returnRows(row(1), row(2), row(3));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            ProducerRecord<byte[], byte[]> record = invocation.getArgument(0);
+            return new String(record.key(), StandardCharsets.UTF_8).equals("2")
+                    ? CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"))
+                    : CompletableFuture.completedFuture(null);
+        });
+
+        assertThat(relay.relayBatch()).isEqualTo(2);
+
+        // row 3 already reached the broker, so it must not be sent again with row 2
+        assertThat(deletedIds()).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void skipsTheBatchWhenAnotherRelayHoldsTheTopic() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(false);
+
+        assertThat(relay.relayBatch()).isZero();
+
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void returnRows(KafkaOutboxRelay.OutboxRow... rows) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("orders"), eq(500)))
+                .thenReturn(List.of(rows));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> deletedIds() {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        return captor.getValue().stream().map(args -> (Long) args[0]).toList();
+    }
+
+    private static KafkaOutboxRelay.OutboxRow row(long id) {
+        return new KafkaOutboxRelay.OutboxRow(id, String.valueOf(id).getBytes(StandardCharsets.UTF_8),
+                new byte[0], null, new Timestamp(System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,160 @@
+package dev.shubham.labs.kafka.xconsumer;
+
+import dev.shubham.labs.kafka.xconsumer.event.EventService;
+import dev.shubham.labs.kafka.xconsumer.event.EventStatus;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomizedBatchMessageListenerTest {
+
+    private final List<List<Long>> processed = new ArrayList<>();
+    private final AtomicInteger acks = new AtomicInteger();
+
+    @Test
+    void withoutJournalRethrowsTheFailedIndexForTheContainer() {
+        RecordingEventService journal = new RecordingEventService(true);
+        List<ConsumerRecord<String, String>> records = records(10, 5);
+        IllegalStateException cause = new IllegalStateException("bad record");
+
+        var listener = listener(journal, batch -> {
+            throw new BatchListenerFailedException("failed", cause, 2);
+        });
+
+        assertThatThrownBy(() -> listener.onMessage(records, acks::incrementAndGet))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> {
+                    assertThat(e.getIndex()).isEqualTo(2);
+                    assertThat(e.getCause()).hasRootCause(cause);
+                });
+        assertThat(acks).hasValue(0);
+    }
+
+    @Test
+    void withoutJournalResolvesAFailedRecordToItsIndex() {
+        RecordingEventService journal = new RecordingEventService(true);
+        List<ConsumerRecord<String, String>> records = records(10, 5);
+
+        var listener = listener(journal, batch -> {
+            throw new BatchListenerFailedException("failed", batch.get(3));
+        });
+
+        assertThatThrownBy(() -> listener.onMessage(records, acks::incrementAndGet))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isEqualTo(3));
+    }
+
+    @Test
+    void withoutJournalRethrowsFailuresWithoutAnIndex() {
+        RecordingEventService journal = new RecordingEventService(true);
+
+        var listener = listener(journal, batch -> {
+            throw new IllegalStateException("whole batch");
+        });
+
+        assertThatThrownBy(() -> listener.onMessage(records(10, 3), acks::incrementAndGet))
+                .isNotInstanceOf(BatchListenerFailedException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+        assertThat(acks).hasValue(0);
+    }
+
+    @Test
+    void withJournalContinuesAfterEachFailedRecord() {
+        RecordingEventService journal = new RecordingEventService(false);
+        List<ConsumerRecord<String, String>> records = records(10, 5);
+
+        var listener = listener(journal, batch -> {
+            // fails 11 in the full batch, then 13 (index 1 of the rest)
+            if (batch.getFirst().offset() == 10) {
+                throw new BatchListenerFailedException("failed", 1);
+            }
+            if (batch.getFirst().offset() == 12) {
+                throw new BatchListenerFailedException("failed", batch.get(1));
+            }
+        });
+        listener.onMessage(records, acks::incrementAndGet);
+
+        assertThat(processed).containsExactly(List.of(10L, 11L, 12L, 13L, 14L), List.of(12L, 13L, 14L), List.of(14L));
+        assertThat(journal.statuses).containsExactlyEntriesOf(Map.of(
+                10L, EventStatus.CONSUMED_SUCCESSFULLY,
+                11L, EventStatus.CONSUMED_FAILURE,
+                12L, EventStatus.CONSUMED_SUCCESSFULLY,
+                13L, EventStatus.CONSUMED_FAILURE,
+                14L, EventStatus.CONSUMED_SUCCESSFULLY));
+        assertThat(acks).hasValue(1);
+    }
+
+    @Test
+    void withJournalMarksTheWholeBatchFailedWhenNoIndexIsKnown() {
+        RecordingEventService journal = new RecordingEventService(false);
+
+        var listener = listener(journal, batch -> {
+            throw new IllegalStateException("whole batch");
+        });
+        listener.onMessage(records(10, 3), acks::incrementAndGet);
+
+        assertThat(processed).hasSize(1);
+        assertThat(journal.statuses).containsOnlyKeys(10L, 11L, 12L);
+        assertThat(journal.statuses.values()).containsOnly(EventStatus.CONSUMED_FAILURE);
+        assertThat(acks).hasValue(1);
+    }
+
+    private BatchAcknowledgingMessageListener<String, String> listener(
+            RecordingEventService journal, Consumer<List<ConsumerRecord<String, String>>> processor) {
+        return new CustomizedBatchMessageListener<>(journal, Runnable::run, batch -> {
+            processed.add(batch.stream().map(ConsumerRecord::offset).toList());
+            processor.accept(batch);
+        }).messageListener();
+    }
+
+    private static List<ConsumerRecord<String, String>> records(long from, int count) {
+        return LongStream.range(from, from + count)
+                .mapToObj(offset -> new ConsumerRecord<>("orders", 0, offset, "key-" + offset, "value"))
+                .toList();
+    }
+
+    private static class RecordingEventService implements EventService<String, String> {
+
+        private final boolean noOp;
+        private final Map<Long, EventStatus> statuses = new TreeMap<>();
+
+        private RecordingEventService(boolean noOp) {
+            this.noOp = noOp;
+        }
+
+        @Override
+        public void saveEvent(ConsumerRecord<String, String> record) {
+            statuses.put(record.offset(), EventStatus.RECEIVED);
+        }
+
+        @Override
+        public void updateEventStateToProcessing(ConsumerRecord<String, String> record) {
+            statuses.put(record.offset(), EventStatus.PROCESSING);
+        }
+
+        @Override
+        public void updateEventStateToConsumedSuccessfully(ConsumerRecord<String, String> record) {
+            statuses.put(record.offset(), EventStatus.CONSUMED_SUCCESSFULLY);
+        }
+
+        @Override
+        public void updateEventStateToConsumedFailure(ConsumerRecord<String, String> record, Throwable e) {
+            statuses.put(record.offset(), EventStatus.CONSUMED_FAILURE);
+        }
+
+        @Override
+        public boolean isNoOp() {
+            return noOp;
+        }
+    }
+}
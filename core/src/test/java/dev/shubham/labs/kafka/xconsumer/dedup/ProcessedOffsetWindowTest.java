@@ -0,0 +1,122 @@
+package dev.shubham.labs.kafka.xconsumer.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessedOffsetWindowTest {
+
+    @Test
+    void treatsEverythingBelowTheFloorAsProcessed() {
+        ProcessedOffsetWindow window = new ProcessedOffsetWindow(100, 8);
+
+        assertThat(window.contains(0)).isTrue();
+        assertThat(window.contains(99)).isTrue();
+        assertThat(window.contains(100)).isFalse();
+
+        window.mark(50);
+        assertThat(window.contains(100)).isFalse();
+    }
+
+    @Test
+    void remembersOnlyMarkedOffsetsAboveTheFloor() {
+        ProcessedOffsetWindow window = new ProcessedOffsetWindow(100, 8);
+
+        window.mark(100);
+        window.mark(103);
+
+        assertThat(window.contains(100)).isTrue();
+        assertThat(window.contains(101)).isFalse();
+        assertThat(window.contains(103)).isTrue();
+        assertThat(window.contains(108)).isFalse();
+    }
+
+    @Test
+    void keepsOffsetsApartAcrossTheRingWrap() {
+        // 2..5 land on indexes 2, 3, 0, 1
+        ProcessedOffsetWindow window = new ProcessedOffsetWindow(2, 4);
+        LongStream.rangeClosed(2, 5).forEach(window::mark);
+        assertThat(LongStream.rangeClosed(2, 5)).allMatch(window::contains);
+
+        // 6 shares index 2 with 2, which slides out of the ring and is forgotten rather than kept as processed
+        window.mark(6);
+        assertThat(window.contains(2)).isFalse();
+        assertThat(LongStream.rangeClosed(3, 6)).allMatch(window::contains);
+        assertThat(window.contains(7)).isFalse();
+    }
+
+    @Test
+    void slidingClearsTheBitsOfDroppedOffsets() {
+        ProcessedOffsetWindow window = new ProcessedOffsetWindow(0, 4);
+        window.mark(0);
+        window.mark(1);
+
+        // base moves to 2, so the indexes of 0 and 1 are reused by 4 and 5, which were never marked
+        window.mark(5);
+
+        assertThat(window.contains(0)).isFalse();
+        assertThat(window.contains(1)).isFalse();
+        assertThat(window.contains(4)).isFalse();
+        assertThat(window.contains(5)).isTrue();
+    }
+
+    @Test
+    void jumpingPastTheWholeRingClearsIt() {
+        ProcessedOffsetWindow window = new ProcessedOffsetWindow(0, 4);
+        LongStream.range(0, 4).forEach(window::mark);
+
+        window.mark(100);
+
+        assertThat(LongStream.range(0, 4)).noneMatch(window::contains);
+        assertThat(LongStream.range(97, 100)).noneMatch(window::contains);
+        assertThat(window.contains(100)).isTrue();
+    }
+
+    @Test
+    void marksBelowTheRingAreIgnored() {
+        ProcessedOffsetWindow window = new ProcessedOffsetWindow(0, 4);
+        window.mark(10);
+
+        window.mark(3);
+
+        assertThat(window.contains(3)).isFalse();
+        assertThat(window.contains(10)).isTrue();
+    }
+
+    @Test
+    void indexesOffsetsBeyondTheIntRange() {
+        long floor = 3_000_000_000L;
+        ProcessedOffsetWindow window = new ProcessedOffsetWindow(floor, 1_000);
+
+        window.mark(floor + 1);
+        window.mark(floor + 1_500);
+
+        assertThat(window.contains(floor + 1)).isFalse();
+        assertThat(window.contains(floor + 1_500)).isTrue();
+        assertThat(window.contains(floor + 500)).isFalse();
+    }
+
+    @Test
+    void seededOffsetsSurviveLaterMarksAndSlides() {
+        // as DeduplicatingListener seeds it: final-state offsets from the journal at and above the position
+        ProcessedOffsetWindow window = new ProcessedOffsetWindow(10, 8);
+        List.of(10L, 12L, 15L).forEach(window::mark);
+
+        assertThat(window.contains(10)).isTrue();
+        assertThat(window.contains(11)).isFalse();
+        assertThat(window.contains(12)).isTrue();
+
+        window.mark(11);
+        window.mark(19);
+
+        // base moved to 12: 10 and 11 are forgotten, the seeded 12 and 15 are kept
+        assertThat(window.contains(10)).isFalse();
+        assertThat(window.contains(11)).isFalse();
+        assertThat(window.contains(12)).isTrue();
+        assertThat(window.contains(15)).isTrue();
+        assertThat(window.contains(19)).isTrue();
+    }
+}
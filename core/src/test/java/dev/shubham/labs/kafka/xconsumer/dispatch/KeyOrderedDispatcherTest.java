@@ -0,0 +1,194 @@
+package dev.shubham.labs.kafka.xconsumer.dispatch;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KeyOrderedDispatcherTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("topic", 0);
+
+    private final KeyOrderedDispatcher<String, String> dispatcher = new KeyOrderedDispatcher<>(4);
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.close();
+    }
+
+    @Test
+    void laneContinuesAfterARecordFailsOutsideTheListenerRetries() throws InterruptedException {
+        List<String> processed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        AcknowledgingMessageListener<String, String> listener = dispatcher.decorate((record, ack) -> {
+            if (record.value().equals("poison")) {
+                throw new StackOverflowError();
+            }
+            processed.add(record.value());
+            ack.acknowledge();
+        });
+
+        listener.onMessage(new ConsumerRecord<>("topic", 0, 0, "key", "poison"), () -> {
+        });
+        listener.onMessage(new ConsumerRecord<>("topic", 0, 1, "key", "next"), done::countDown);
+
+        assertThat(awaitProcessed(processed)).isTrue();
+        assertThat(processed).containsExactly("next");
+        // the failed record was never acked, so the commit holds before it
+        assertThat(done.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(dispatcher.getInFlight()).isZero();
+    }
+
+    @Test
+    void keepsPerKeyOrder() throws InterruptedException {
+        List<Long> offsets = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        AcknowledgingMessageListener<String, String> listener = dispatcher.decorate((record, ack) -> {
+            offsets.add(record.offset());
+            ack.acknowledge();
+        });
+
+        for (long offset = 0; offset < 3; offset++) {
+            listener.onMessage(new ConsumerRecord<>("topic", 0, offset, "key", "value"), done::countDown);
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(offsets).containsExactly(0L, 1L, 2L);
+    }
+
+    @Test
+    void openBreakerNeverBlocksThePollThread() throws InterruptedException {
+        KeyOrderedDispatcher<String, String> single = new KeyOrderedDispatcher<>(
+                1, Duration.ofSeconds(5), Duration.ofMillis(50), Duration.ofSeconds(10));
+        MessageListenerContainer container = pausableContainer();
+        ConsumerSeekAware.ConsumerSeekCallback seeks = mock(ConsumerSeekAware.ConsumerSeekCallback.class);
+        CallNotPermittedException open = CallNotPermittedException.createCallNotPermittedException(
+                CircuitBreaker.ofDefaults("inventory"));
+        List<Long> acked = new CopyOnWriteArrayList<>();
+        try {
+            single.registerContainer(container);
+            AcknowledgingMessageListener<String, String> listener = single.decorate((record, ack) -> {
+                throw open;
+            });
+            ((ConsumerSeekAware) listener).onPartitionsAssigned(Map.of(PARTITION, 0L), seeks);
+
+            long slowest = 0;
+            for (long offset = 0; offset < 50; offset++) {
+                long start = System.nanoTime();
+                long acks = offset;
+                listener.onMessage(new ConsumerRecord<>("topic", 0, offset, "key" + offset, "value"),
+                        () -> acked.add(acks));
+                slowest = Math.max(slowest, System.nanoTime() - start);
+            }
+
+            // each call waits at most for the permit timeout, never for the breaker to close
+            assertThat(Duration.ofNanos(slowest)).isLessThan(Duration.ofMillis(500));
+            verify(seeks, timeout(1000)).seek("topic", 0, 0L);
+            verify(container, timeout(1000)).pausePartition(PARTITION);
+            assertThat(awaitIdle(single)).isTrue();
+            assertThat(acked).isEmpty();
+        } finally {
+            single.close();
+        }
+    }
+
+    @Test
+    void sendsThePartitionBackWhenNoSlotFreesUp() throws InterruptedException {
+        KeyOrderedDispatcher<String, String> single = new KeyOrderedDispatcher<>(
+                1, Duration.ofSeconds(5), Duration.ofMillis(50), Duration.ofSeconds(10));
+        MessageListenerContainer container = pausableContainer();
+        ConsumerSeekAware.ConsumerSeekCallback seeks = mock(ConsumerSeekAware.ConsumerSeekCallback.class);
+        CountDownLatch slow = new CountDownLatch(1);
+        List<Long> acked = new CopyOnWriteArrayList<>();
+        try {
+            single.registerContainer(container);
+            AcknowledgingMessageListener<String, String> listener = single.decorate((record, ack) -> {
+                if (record.offset() == 0) {
+                    awaitQuietly(slow);
+                }
+                ack.acknowledge();
+            });
+            ((ConsumerSeekAware) listener).onPartitionsAssigned(Map.of(PARTITION, 0L), seeks);
+
+            listener.onMessage(new ConsumerRecord<>("topic", 0, 0, "a", "value"), () -> acked.add(0L));
+            listener.onMessage(new ConsumerRecord<>("topic", 0, 1, "b", "value"), () -> acked.add(1L));
+            // fetched before the seek took effect
+            listener.onMessage(new ConsumerRecord<>("topic", 0, 2, "c", "value"), () -> acked.add(2L));
+
+            verify(seeks).seek("topic", 0, 1L);
+            verify(container).pausePartition(PARTITION);
+
+            slow.countDown();
+            assertThat(awaitIdle(single)).isTrue();
+            assertThat(acked).containsExactly(0L);
+
+            // redelivered after the seek
+            listener.onMessage(new ConsumerRecord<>("topic", 0, 1, "b", "value"), () -> acked.add(1L));
+            listener.onMessage(new ConsumerRecord<>("topic", 0, 2, "c", "value"), () -> acked.add(2L));
+            assertThat(awaitIdle(single)).isTrue();
+            assertThat(acked).contains(0L, 2L);
+        } finally {
+            single.close();
+        }
+    }
+
+    private boolean awaitIdle(KeyOrderedDispatcher<?, ?> target) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (target.getInFlight() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private static MessageListenerContainer pausableContainer() {
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        Set<TopicPartition> paused = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> paused.add(invocation.getArgument(0))).when(container).pausePartition(any());
+        when(container.isPartitionPauseRequested(any())).thenAnswer(invocation -> paused.contains(invocation.getArgument(0)));
+        return container;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean awaitProcessed(List<String> processed) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (processed.isEmpty() || dispatcher.getInFlight() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package dev.shubham.labs.kafka.xconsumer.dispatch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionOffsetTrackerTest {
+
+    private final PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+    private final List<Long> acked = new CopyOnWriteArrayList<>();
+
+    @Test
+    void acksOnlyTheHighestContiguousOffset() {
+        Acknowledgment first = track(10);
+        Acknowledgment second = track(11);
+        Acknowledgment third = track(12);
+
+        third.acknowledge();
+        assertThat(acked).isEmpty();
+
+        first.acknowledge();
+        assertThat(acked).containsExactly(10L);
+
+        second.acknowledge();
+        assertThat(acked).containsExactly(10L, 12L);
+        assertThat(tracker.size()).isZero();
+    }
+
+    @Test
+    void isIdleOnceEveryTaskFinished() throws InterruptedException {
+        track(1);
+        track(2);
+        tracker.taskFinished();
+
+        assertThat(tracker.awaitIdle(Duration.ofMillis(10))).isFalse();
+
+        tracker.taskFinished();
+        assertThat(tracker.awaitIdle(Duration.ofMillis(10))).isTrue();
+    }
+
+    @Test
+    void dropsAcksOfTruncatedRecords() {
+        Acknowledgment first = track(1);
+        Acknowledgment second = track(2);
+        Acknowledgment third = track(3);
+
+        tracker.truncate(2);
+        third.acknowledge();
+        second.acknowledge();
+        assertThat(acked).isEmpty();
+
+        first.acknowledge();
+        assertThat(acked).containsExactly(1L);
+        assertThat(tracker.size()).isZero();
+    }
+
+    @Test
+    void dropsEveryAckOnceInvalidated() {
+        Acknowledgment first = track(1);
+        tracker.invalidate();
+
+        first.acknowledge();
+        track(2).acknowledge();
+
+        assertThat(acked).isEmpty();
+        assertThat(tracker.track(3, () -> acked.add(3L)).isCancelled()).isTrue();
+    }
+
+    private Acknowledgment track(long offset) {
+        return tracker.track(offset, () -> acked.add(offset));
+    }
+}
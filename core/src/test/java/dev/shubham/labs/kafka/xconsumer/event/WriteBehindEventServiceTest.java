@@ -0,0 +1,77 @@
+package dev.shubham.labs.kafka.xconsumer.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WriteBehindEventServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<Long> acked = new CopyOnWriteArrayList<>();
+    private final WriteBehindEventService<String, String> eventService;
+
+    WriteBehindEventServiceTest() {
+        EventStorageProps.WriteBehind props = new EventStorageProps.WriteBehind();
+        props.setBatchSize(2);
+        // long enough that only acknowledge() flushes during the test
+        props.setMaxDelay(Duration.ofMinutes(10));
+        eventService = new WriteBehindEventService<>(jdbcTemplate, mock(PlatformTransactionManager.class),
+                new ObjectMapper(), props);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventService.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keepsRowsAndAcksBufferedWhenAFlushFails() {
+        List<Long> written = new CopyOnWriteArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenAnswer(invocation -> {
+                    invocation.<Collection<EventRow>>getArgument(1).forEach(row -> written.add(row.offset()));
+                    return new int[0][];
+                });
+
+        process(0);
+        assertThatCode(() -> process(1)).doesNotThrowAnyException();
+        assertThat(acked).isEmpty();
+
+        process(2);
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(written).containsExactly(0L, 1L, 2L);
+        assertThat(acked).containsExactly(0L, 1L, 2L);
+    }
+
+    private void process(long offset) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("orders", 0, offset, "key", "value");
+        eventService.saveEvent(record);
+        eventService.updateEventStateToConsumedSuccessfully(record);
+        eventService.acknowledge(record, () -> acked.add(offset));
+    }
+}
@@ -1,14 +1,20 @@
 package dev.shubham.labs.ecomm.config;
 
-import dev.shubham.labs.kafka.AllocateInventoryEvent;
+import dev.shubham.labs.ecomm.stock.StockAvailabilityPublisher;
+import dev.shubham.labs.ecomm.stock.StockLedger;
 import dev.shubham.labs.kafka.KafkaConsumerProps;
+import dev.shubham.labs.kafka.PooledAllocateInventoryEvent;
+import dev.shubham.labs.kafka.codec.PooledRecordDeserializer;
 import dev.shubham.labs.kafka.xconsumer.KafkaConsumerBuilder;
 import dev.shubham.labs.kafka.xconsumer.event.EventService;
+import dev.shubham.labs.kafka.xconsumer.lag.ConsumerLagMonitor;
 import dev.shubham.labs.kafka.xconsumer.lifecycle.ContainerStrategyFactory;
+import dev.shubham.labs.kafka.xconsumer.resiliency.AdaptiveConcurrencyStrategy;
 import dev.shubham.labs.kafka.xconsumer.resiliency.ResilienceStrategyFactory;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.retry.RetryRegistry;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -19,6 +25,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import java.time.Duration;
+
 @Configuration
 @Slf4j
 public class KafkaConsumerBean {
@@ -30,27 +38,48 @@ public class KafkaConsumerBean {
     }
 
     @Bean
-    public ConcurrentMessageListenerContainer<String, AllocateInventoryEvent> inventoryConsumer(
+    public ConcurrentMessageListenerContainer<String, PooledAllocateInventoryEvent> inventoryConsumer(
             KafkaConsumerProps kafkaProps, MeterRegistry meterRegistry,
-            CircuitBreakerRegistry circuitBreakerRegistry, RetryRegistry registry, EventService<String, AllocateInventoryEvent> jpaEventService) {
-        return new KafkaConsumerBuilder<String, AllocateInventoryEvent>()
+            CircuitBreakerRegistry circuitBreakerRegistry, RetryRegistry registry, EventService<String, PooledAllocateInventoryEvent> jpaEventService,
+            OpenTelemetry openTelemetry, ConsumerLagMonitor consumerLagMonitor, StockLedger stockLedger,
+            StockAvailabilityPublisher availabilityPublisher) {
+        return new KafkaConsumerBuilder<String, PooledAllocateInventoryEvent>()
                 .withConfig(kafkaProps)
                 .withKeyClass(StringDeserializer.class)
                 .withValueClass(JsonDeserializer.class)
                 .withMeterRegistry(meterRegistry)
+                .withOpenTelemetry(openTelemetry)
+                .withLagMonitor(consumerLagMonitor)
                 .withEventService(jpaEventService)
                 .withResilienceStrategy(ResilienceStrategyFactory
-                        .createStrategy(circuitBreakerRegistry.circuitBreaker("backendB"), null))
-                .withContainerStrategy(ContainerStrategyFactory.create(circuitBreakerRegistry.circuitBreaker("backendB")))
+                        .createStrategy(circuitBreakerRegistry.circuitBreaker("backendB"), null,
+                                AdaptiveConcurrencyStrategy.builder().maxLimit(Math.max(1, maxInFlight(kafkaProps))).build()))
+                .withContainerStrategy(ContainerStrategyFactory.createPartitionAware(
+                        circuitBreakerRegistry.circuitBreaker("backendB"), 0.25, Duration.ofSeconds(5)))
                 .withMessageProcessor((record) -> {
-                    log.info("Received message:offset:: {} , partition:: {}", record.offset(), record.partition());
-//                throw new RuntimeException("test exception");
-
+                    log.debug("Received message:offset:: {} , partition:: {}", record.offset(), record.partition());
+                    // an allocation that cannot be met is not retried, more attempts won't make stock appear
+                    String beerId = record.value().beerId();
+                    if (!stockLedger.reserve(beerId, 1)) {
+                        log.warn("Out of stock for {}, offset:: {} , partition:: {}",
+                                beerId, record.offset(), record.partition());
+                    }
+                    // published either way, a refused reservation means the cached level was stale
+                    availabilityPublisher.changed(beerId);
                 })
                 .withAdditionalProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10)
+                // a poll's worth of records per container thread plus what the dispatcher holds in flight
+                .withAdditionalProperty(PooledRecordDeserializer.POOL_SIZE_CONFIG, 10 + maxInFlight(kafkaProps))
                 .build();
     }
 
+    // the limiter and the record pool must not cap the dispatcher below what the autoscaler may grow it to
+    private static int maxInFlight(KafkaConsumerProps kafkaProps) {
+        return kafkaProps.getAutoscaling().isEnabled()
+                ? Math.max(kafkaProps.getMaxInFlight(), kafkaProps.getAutoscaling().getMaxInFlight())
+                : kafkaProps.getMaxInFlight();
+    }
+
     @Bean
     public NewTopic createTopic() {
         log.info("Creating topic: allocate-inventory-event");
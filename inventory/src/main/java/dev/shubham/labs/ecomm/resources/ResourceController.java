@@ -1,23 +1,66 @@
 package dev.shubham.labs.ecomm.resources;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.shubham.labs.ecomm.stock.StockLedger;
+import dev.shubham.labs.ecomm.stock.StockLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @Slf4j
 @RequiredArgsConstructor
 public class ResourceController {
 
+    private static final int MAX_QUERY_SIZE = 10_000;
+    private static final int FLUSH_EVERY = 256;
+
+    private final StockLedger stockLedger;
+    private final ObjectMapper objectMapper;
+
     @GetMapping(path = "/inventory")
-    ResponseEntity<String> status(@RequestParam("productId") Collection<String> productId) {
-        log.info("request {}", productId);
-        return ResponseEntity.status(200).body("Success");
+    ResponseEntity<List<StockLevel>> status(@RequestParam("productId") Collection<String> productId) {
+        log.debug("request {}", productId);
+        return ResponseEntity.ok(productId.stream().map(stockLedger::level).toList());
+    }
 
+    // Writes one StockLevel per line as it is looked up, flushing every FLUSH_EVERY lines, so the response is
+    // never built in memory. Lookups are sequential: the ledger is in memory and a lookup costs less than
+    // handing it to another thread would.
+    @PostMapping(path = "/inventory/query", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> query(@RequestBody List<String> productIds) {
+        if (productIds.size() > MAX_QUERY_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        ObjectWriter writer = objectMapper.writerFor(StockLevel.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                int written = 0;
+                for (String productId : productIds) {
+                    writer.writeValue(generator, stockLedger.level(productId));
+                    generator.writeRaw('\n');
+                    if (++written % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 }
@@ -0,0 +1,108 @@
+package dev.shubham.labs.ecomm.stock;
+
+import dev.shubham.labs.availability.AvailabilityStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Publishes ledger levels to the shared availability cache from a single thread. Callers only mark a product
+// as changed; the publisher reads the ledger when it writes, so a later write always carries a newer level and
+// concurrent reservations can't overwrite the cache with an older quantity. Without an AvailabilityStore
+// nothing is tracked.
+@Slf4j
+public class StockAvailabilityPublisher implements SmartLifecycle {
+
+    private final StockLedger ledger;
+    private final AvailabilityStore store;
+    private final StockProps props;
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public StockAvailabilityPublisher(StockLedger ledger, AvailabilityStore store, StockProps props) {
+        this.ledger = ledger;
+        this.store = store;
+        this.props = props;
+    }
+
+    public void changed(String productId) {
+        if (store != null) {
+            changed.add(productId);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (store == null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("inventory-availability-publisher").factory());
+        long interval = props.getAvailabilityPublishInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::publish, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(props.getAvailabilityPublishInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        publish();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Same window as StockSnapshotter: up before the Kafka containers and flushed after they stop
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE - 100;
+    }
+
+    void publish() {
+        List<String> batch = new ArrayList<>(props.getSnapshotBatchSize());
+        while (!drain(batch).isEmpty()) {
+            Map<String, Integer> levels = new HashMap<>(batch.size());
+            batch.forEach(productId -> levels.put(productId, ledger.level(productId).available()));
+            if (!store.putAll(levels)) {
+                // retried on the next run, still reading the ledger then
+                changed.addAll(batch);
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private Collection<String> drain(List<String> into) {
+        for (String productId : changed) {
+            if (into.size() >= props.getSnapshotBatchSize()) {
+                break;
+            }
+            if (changed.remove(productId)) {
+                into.add(productId);
+            }
+        }
+        return into;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.shubham.labs.ecomm.stock;
+
+import dev.shubham.labs.availability.AvailabilityStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration(proxyBeanMethods = false)
+public class StockConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "application.stock")
+    public StockProps stockProps() {
+        return new StockProps();
+    }
+
+    @Bean
+    public StockLedger stockLedger() {
+        return new StockLedger();
+    }
+
+    @Bean
+    public StockAvailabilityPublisher stockAvailabilityPublisher(StockLedger stockLedger, StockProps stockProps,
+                                                                 ObjectProvider<AvailabilityStore> availabilityStore) {
+        return new StockAvailabilityPublisher(stockLedger, availabilityStore.getIfAvailable(), stockProps);
+    }
+
+    @Bean
+    public StockSnapshotter stockSnapshotter(StockLedger stockLedger, StockProps stockProps, JdbcTemplate jdbcTemplate,
+                                             PlatformTransactionManager transactionManager) {
+        return new StockSnapshotter(stockLedger, stockProps, jdbcTemplate, transactionManager);
+    }
+}
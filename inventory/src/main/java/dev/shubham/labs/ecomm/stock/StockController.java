@@ -0,0 +1,54 @@
+package dev.shubham.labs.ecomm.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/inventory/{productId}")
+@RequiredArgsConstructor
+public class StockController {
+
+    private final StockLedger stockLedger;
+    private final StockAvailabilityPublisher availabilityPublisher;
+
+    @PostMapping("/restock")
+    ResponseEntity<StockLevel> restock(@PathVariable String productId, @RequestParam int quantity) {
+        stockLedger.restock(productId, quantity);
+        return ResponseEntity.ok(published(productId));
+    }
+
+    @PostMapping("/reserve")
+    ResponseEntity<StockLevel> reserve(@PathVariable String productId, @RequestParam int quantity) {
+        boolean reserved = stockLedger.reserve(productId, quantity);
+        return ResponseEntity.status(reserved ? 200 : 409).body(published(productId));
+    }
+
+    @PostMapping("/release")
+    ResponseEntity<StockLevel> release(@PathVariable String productId, @RequestParam int quantity) {
+        stockLedger.release(productId, quantity);
+        return ResponseEntity.ok(published(productId));
+    }
+
+    @PostMapping("/commit")
+    ResponseEntity<StockLevel> commit(@PathVariable String productId, @RequestParam int quantity) {
+        stockLedger.commit(productId, quantity);
+        return ResponseEntity.ok(published(productId));
+    }
+
+    // A refused reservation also republishes, the cached level it was made against may be stale
+    private StockLevel published(String productId) {
+        availabilityPublisher.changed(productId);
+        return stockLedger.level(productId);
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, IllegalStateException.class})
+    ResponseEntity<String> rejected(RuntimeException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
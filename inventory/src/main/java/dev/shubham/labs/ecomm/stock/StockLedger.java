@@ -0,0 +1,137 @@
+package dev.shubham.labs.ecomm.stock;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory stock per product. Available and reserved quantities are packed into one long, available in the
+// high 32 bits and reserved in the low 32, so every operation is a single CAS on one AtomicLong and a
+// reservation can never take available below zero, however many threads race for the last unit.
+// Products changed since the last snapshot are tracked for StockSnapshotter.
+public class StockLedger {
+
+    private final Map<String, AtomicLong> levels = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    // Moves quantity from available to reserved; false when not enough is available
+    public boolean reserve(String productId, int quantity) {
+        checkQuantity(quantity);
+        AtomicLong level = levels.get(productId);
+        if (level == null) {
+            return false;
+        }
+        while (true) {
+            long current = level.get();
+            int available = available(current);
+            if (available < quantity) {
+                return false;
+            }
+            if (level.compareAndSet(current, pack(available - quantity, Math.addExact(reserved(current), quantity)))) {
+                dirty.add(productId);
+                return true;
+            }
+        }
+    }
+
+    // Returns reserved quantity to available, e.g. when an order is cancelled
+    public void release(String productId, int quantity) {
+        checkQuantity(quantity);
+        AtomicLong level = existing(productId);
+        while (true) {
+            long current = level.get();
+            int reserved = reserved(current);
+            if (reserved < quantity) {
+                throw new IllegalStateException("Cannot release " + quantity + " of " + productId
+                        + ", only " + reserved + " reserved");
+            }
+            if (level.compareAndSet(current, pack(Math.addExact(available(current), quantity), reserved - quantity))) {
+                dirty.add(productId);
+                return;
+            }
+        }
+    }
+
+    // Removes reserved quantity for good once the order has shipped
+    public void commit(String productId, int quantity) {
+        checkQuantity(quantity);
+        AtomicLong level = existing(productId);
+        while (true) {
+            long current = level.get();
+            int reserved = reserved(current);
+            if (reserved < quantity) {
+                throw new IllegalStateException("Cannot commit " + quantity + " of " + productId
+                        + ", only " + reserved + " reserved");
+            }
+            if (level.compareAndSet(current, pack(available(current), reserved - quantity))) {
+                dirty.add(productId);
+                return;
+            }
+        }
+    }
+
+    public void restock(String productId, int quantity) {
+        checkQuantity(quantity);
+        AtomicLong level = levels.computeIfAbsent(productId, id -> new AtomicLong());
+        while (true) {
+            long current = level.get();
+            if (level.compareAndSet(current, pack(Math.addExact(available(current), quantity), reserved(current)))) {
+                dirty.add(productId);
+                return;
+            }
+        }
+    }
+
+    public StockLevel level(String productId) {
+        AtomicLong level = levels.get(productId);
+        long current = level != null ? level.get() : 0;
+        return new StockLevel(productId, available(current), reserved(current));
+    }
+
+    // Seeds a product from the last snapshot without marking it changed
+    void load(String productId, int available, int reserved) {
+        levels.computeIfAbsent(productId, id -> new AtomicLong()).set(pack(available, reserved));
+    }
+
+    // Takes up to max changed products; a product changed again while being written is simply picked up next time
+    Collection<String> drainDirty(int max, Collection<String> into) {
+        for (String productId : dirty) {
+            if (into.size() >= max) {
+                break;
+            }
+            if (dirty.remove(productId)) {
+                into.add(productId);
+            }
+        }
+        return into;
+    }
+
+    void markDirty(Collection<String> productIds) {
+        dirty.addAll(productIds);
+    }
+
+    private AtomicLong existing(String productId) {
+        AtomicLong level = levels.get(productId);
+        if (level == null) {
+            throw new IllegalArgumentException("Unknown product " + productId);
+        }
+        return level;
+    }
+
+    private static void checkQuantity(int quantity) {
+        if (quantity < 1) throw new IllegalArgumentException("quantity must be at least 1");
+    }
+
+    private static long pack(int available, int reserved) {
+        return ((long) available << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private static int available(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int reserved(long packed) {
+        return (int) packed;
+    }
+}
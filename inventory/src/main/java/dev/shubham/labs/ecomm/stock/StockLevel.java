@@ -0,0 +1,4 @@
+package dev.shubham.labs.ecomm.stock;
+
+public record StockLevel(String productId, int available, int reserved) {
+}
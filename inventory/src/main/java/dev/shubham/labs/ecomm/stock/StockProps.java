@@ -0,0 +1,20 @@
+package dev.shubham.labs.ecomm.stock;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockProps {
+
+    // how often changed products are written to inventory_stock
+    private Duration snapshotInterval = Duration.ofSeconds(1);
+    private int snapshotBatchSize = 1000;
+    // how often changed products are written to the availability cache, when there is one
+    private Duration availabilityPublishInterval = Duration.ofMillis(100);
+
+}
@@ -0,0 +1,103 @@
+package dev.shubham.labs.ecomm.stock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Loads the ledger from inventory_stock on start and periodically upserts the products that changed since the
+// last run. The ledger stays authoritative; a failed write puts the products back to be retried next run.
+@Slf4j
+public class StockSnapshotter implements SmartLifecycle {
+
+    private static final String SELECT_SQL = "SELECT product_id, available, reserved FROM inventory_stock";
+    private static final String UPSERT_SQL = """
+            INSERT INTO inventory_stock (product_id, available, reserved, updated_at)
+            VALUES (?, ?, ?, now())
+            ON CONFLICT (product_id) DO UPDATE
+            SET available = EXCLUDED.available, reserved = EXCLUDED.reserved, updated_at = EXCLUDED.updated_at
+            """;
+
+    private final StockLedger ledger;
+    private final StockProps props;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public StockSnapshotter(StockLedger ledger, StockProps props, JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager) {
+        this.ledger = ledger;
+        this.props = props;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void start() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(SELECT_SQL, rs -> {
+            ledger.load(rs.getString("product_id"), rs.getInt("available"), rs.getInt("reserved"));
+        }));
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("inventory-stock-snapshot").factory());
+        long interval = props.getSnapshotInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshot, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(props.getSnapshotInterval().toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // write what changed since the last run before shutting down
+        snapshot();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Starts before and stops after the Kafka containers, so they see a loaded ledger and the final snapshot
+    // includes their last reservations
+    @Override
+    public int getPhase() {
+        return AbstractMessageListenerContainer.DEFAULT_PHASE - 100;
+    }
+
+    void snapshot() {
+        List<String> batch = new ArrayList<>(props.getSnapshotBatchSize());
+        while (!ledger.drainDirty(props.getSnapshotBatchSize(), batch).isEmpty()) {
+            try {
+                write(batch);
+            } catch (Exception e) {
+                log.error("Failed to snapshot {} stock levels, retrying on the next run", batch.size(), e);
+                ledger.markDirty(batch);
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<String> productIds) {
+        List<Object[]> rows = new ArrayList<>(productIds.size());
+        for (String productId : productIds) {
+            StockLevel level = ledger.level(productId);
+            rows.add(new Object[]{productId, level.available(), level.reserved()});
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, rows));
+    }
+}
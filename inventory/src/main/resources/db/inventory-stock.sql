@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS inventory_stock
+(
+    product_id VARCHAR(255) PRIMARY KEY,
+    available  INTEGER     NOT NULL CHECK (available >= 0),
+    reserved   INTEGER     NOT NULL CHECK (reserved >= 0),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,158 @@
+package dev.shubham.labs.ecomm.stock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StockLedgerTest {
+
+    private static final int THREADS = 16;
+
+    private final StockLedger ledger = new StockLedger();
+
+    @Test
+    void racingReservationsNeverOversell() throws Exception {
+        ledger.restock("beer", 1_000);
+
+        int reserved = race(() -> ledger.reserve("beer", 1));
+
+        assertThat(reserved).isEqualTo(1_000);
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", 0, 1_000));
+    }
+
+    @Test
+    void racingMultiUnitReservationsLeaveOnlyTheRemainder() throws Exception {
+        ledger.restock("beer", 1_000);
+
+        int reservations = race(() -> ledger.reserve("beer", 7));
+
+        // 142 * 7 = 994, and the last 6 units can't cover another reservation
+        assertThat(reservations).isEqualTo(142);
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", 6, 994));
+    }
+
+    @Test
+    void unknownProductsCannotBeReserved() {
+        assertThat(ledger.reserve("beer", 1)).isFalse();
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", 0, 0));
+    }
+
+    @Test
+    void releaseAndCommitMoveReservedStock() {
+        ledger.restock("beer", 10);
+        ledger.reserve("beer", 6);
+
+        ledger.release("beer", 2);
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", 6, 4));
+
+        ledger.commit("beer", 4);
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", 6, 0));
+    }
+
+    @Test
+    void releasingOrCommittingMoreThanReservedFailsWithoutChangingStock() {
+        ledger.restock("beer", 10);
+        ledger.reserve("beer", 3);
+
+        assertThatThrownBy(() -> ledger.release("beer", 4)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ledger.commit("beer", 4)).isInstanceOf(IllegalStateException.class);
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", 7, 3));
+    }
+
+    @Test
+    void releasingOrCommittingAnUnknownProductFails() {
+        assertThatThrownBy(() -> ledger.release("beer", 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ledger.commit("beer", 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsQuantitiesBelowOne() {
+        ledger.restock("beer", 10);
+
+        assertThatThrownBy(() -> ledger.reserve("beer", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ledger.release("beer", -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ledger.commit("beer", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ledger.restock("beer", 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void keepsBothHalvesApartAtTheLargestQuantities() {
+        ledger.restock("beer", Integer.MAX_VALUE);
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", Integer.MAX_VALUE, 0));
+
+        assertThat(ledger.reserve("beer", Integer.MAX_VALUE - 1)).isTrue();
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", 1, Integer.MAX_VALUE - 1));
+
+        assertThat(ledger.reserve("beer", 1)).isTrue();
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", 0, Integer.MAX_VALUE));
+
+        ledger.release("beer", Integer.MAX_VALUE);
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", Integer.MAX_VALUE, 0));
+    }
+
+    @Test
+    void loadsLargeSnapshotValuesIntact() {
+        ledger.load("beer", Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", Integer.MAX_VALUE, Integer.MAX_VALUE));
+
+        ledger.commit("beer", Integer.MAX_VALUE);
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", Integer.MAX_VALUE, 0));
+    }
+
+    @Test
+    void restockBeyondTheLimitFailsWithoutChangingStock() {
+        ledger.restock("beer", Integer.MAX_VALUE);
+
+        assertThatThrownBy(() -> ledger.restock("beer", 1)).isInstanceOf(ArithmeticException.class);
+        assertThat(ledger.level("beer")).isEqualTo(new StockLevel("beer", Integer.MAX_VALUE, 0));
+    }
+
+    // Runs the reservation on every thread until it fails, sampling the level throughout; returns the successes
+    private int race(BooleanSupplier attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicInteger successes = new AtomicInteger();
+            Future<Boolean> sampler = executor.submit(() -> {
+                boolean consistent = true;
+                while (!done.get()) {
+                    StockLevel level = ledger.level("beer");
+                    consistent &= level.available() >= 0 && level.available() + level.reserved() == 1_000;
+                }
+                return consistent;
+            });
+            List<Future<?>> racers = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                racers.add(executor.submit(() -> {
+                    start.await();
+                    while (attempt.getAsBoolean()) {
+                        successes.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> racer : racers) {
+                racer.get(10, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            assertThat(sampler.get(10, TimeUnit.SECONDS)).isTrue();
+            return successes.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package dev.shubham.labs.ecomm.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.shubham.labs.client.ClientProps;
+import dev.shubham.labs.client.RequestCoalescer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Single-id lookups issued concurrently share one GET /inventory call. The response lists one StockLevel per
+// product, so each caller gets a list holding only its own entry, or a 404 when the product is missing.
+// Error responses carry no product data and are handed to every caller in the batch.
+@Slf4j
+public class CoalescingInventoryRestClient implements InventoryRestClient, AutoCloseable {
+
+    private final InventoryRestClient delegate;
+    private final ObjectMapper objectMapper;
+    private final RequestCoalescer<String, ResponseEntity<String>> coalescer;
+
+    public CoalescingInventoryRestClient(InventoryRestClient delegate, ObjectMapper objectMapper,
+                                         ClientProps.Coalescing props) {
+        this.delegate = delegate;
+        this.objectMapper = objectMapper;
+        this.coalescer = new RequestCoalescer<>("inventory", this::findBatch, props.getMaxBatchSize(), props.getMaxDelay());
+    }
+
+    @Override
+    public ResponseEntity<String> findInventory(Collection<String> productId) {
+        if (productId.size() != 1) {
+            return delegate.findInventory(productId);
+        }
+        return coalescer.get(productId.iterator().next());
+    }
+
+    @Override
+    public ResponseEntity<InputStream> queryInventory(Collection<String> productIds) {
+        return delegate.queryInventory(productIds);
+    }
+
+    @Override
+    public void close() {
+        coalescer.close();
+    }
+
+    private Map<String, ResponseEntity<String>> findBatch(Set<String> productIds) {
+        ResponseEntity<String> response = delegate.findInventory(productIds);
+        Map<String, ResponseEntity<String>> results = new HashMap<>();
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            productIds.forEach(productId -> results.put(productId, response));
+            return results;
+        }
+        JsonNode levels;
+        try {
+            levels = objectMapper.readTree(response.getBody());
+        } catch (JsonProcessingException e) {
+            log.error("Failed to parse coalesced inventory response", e);
+            throw new RuntimeException(e);
+        }
+        for (JsonNode level : levels) {
+            String productId = level.path("productId").asText(null);
+            if (productId != null && productIds.contains(productId)) {
+                String body = objectMapper.createArrayNode().add(level).toString();
+                results.put(productId, ResponseEntity.status(response.getStatusCode())
+                        .headers(response.getHeaders()).body(body));
+            }
+        }
+        productIds.forEach(productId -> results.computeIfAbsent(productId, id -> ResponseEntity.notFound().build()));
+        return results;
+    }
+}
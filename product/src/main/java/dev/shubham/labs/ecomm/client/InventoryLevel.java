@@ -0,0 +1,4 @@
+package dev.shubham.labs.ecomm.client;
+
+public record InventoryLevel(String productId, int available, int reserved) {
+}
@@ -1,11 +1,16 @@
 package dev.shubham.labs.ecomm.client;
 
+import dev.shubham.labs.client.NdjsonReader;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PostExchange;
 
+import java.io.InputStream;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 @HttpExchange(url = "/inventory", accept = "application/json", contentType = "application/json")
 public interface InventoryRestClient {
@@ -13,4 +18,14 @@ public interface InventoryRestClient {
     @GetExchange
     ResponseEntity<String> findInventory(@RequestParam("productId") Collection<String> productId);
 
+    // Body is NDJSON, one InventoryLevel per line; prefer streamInventory which parses it lazily
+    @PostExchange(url = "/query", accept = "application/x-ndjson")
+    ResponseEntity<InputStream> queryInventory(@RequestBody Collection<String> productIds);
+
+    // The stream holds the HTTP response open until it is closed
+    default Stream<InventoryLevel> streamInventory(Collection<String> productIds) {
+        InputStream body = queryInventory(productIds).getBody();
+        return body != null ? NdjsonReader.read(body, InventoryLevel.class) : Stream.empty();
+    }
+
 }
\ No newline at end of file
@@ -1,15 +1,20 @@
 package dev.shubham.labs.ecomm.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.shubham.labs.client.ClientProps;
 import dev.shubham.labs.client.HttpClientCustomizer;
+import dev.shubham.labs.ecomm.client.CoalescingInventoryRestClient;
 import dev.shubham.labs.ecomm.client.InventoryRestClient;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestClient;
 
+import java.util.function.UnaryOperator;
+
 @Configuration(proxyBeanMethods = false)
 public class ClientConfig {
 
@@ -21,13 +26,22 @@ public class ClientConfig {
     }
 
     @Bean
-    public InventoryRestClient inventoryRestClient(RestClient.Builder builder, ClientProps inventoryClientProps, RetryRegistry registry, CircuitBreakerRegistry circuitBreakerRegistry) {
+    public InventoryRestClient inventoryRestClient(RestClient.Builder builder, ClientProps inventoryClientProps, RetryRegistry registry,
+                                                   CircuitBreakerRegistry circuitBreakerRegistry, MeterRegistry meterRegistry,
+                                                   ObjectMapper objectMapper) {
+        var coalescing = inventoryClientProps.getCoalescing();
+        // coalesced under the cache, so single-id reads are cached per id and still served with the breaker open
+        UnaryOperator<InventoryRestClient> decorator = coalescing.isEnabled()
+                ? client -> new CoalescingInventoryRestClient(client, objectMapper, coalescing)
+                : null;
         return HttpClientCustomizer.<InventoryRestClient>builder()
                 .builder(builder)
                 .clientProps(inventoryClientProps)
                 .serviceType(InventoryRestClient.class)
                 .retry(registry.retry("backendA"))
                 .circuitBreaker(circuitBreakerRegistry.circuitBreaker("backendA"))
+                .meterRegistry(meterRegistry)
+                .decorator(decorator)
                 .build().getClient();
     }
 
@@ -2,6 +2,10 @@ package dev.shubham.labs.ecomm.config;
 
 import dev.shubham.labs.kafka.AllocateInventoryEvent;
 import dev.shubham.labs.kafka.KafkaProducerConfig;
+import dev.shubham.labs.kafka.KafkaProducerProps;
+import dev.shubham.labs.kafka.codec.RecordCodecSerializer;
+import dev.shubham.labs.kafka.producer.KafkaOutboxRelay;
+import dev.shubham.labs.kafka.producer.KafkaOutboxService;
 import dev.shubham.labs.kafka.producer.KafkaProducerService;
 import dev.shubham.labs.kafka.producer.KafkaProducerServiceImpl;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -32,17 +36,21 @@ import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
 import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.autoconfigure.opentelemetry.OpenTelemetryProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -67,6 +75,29 @@ public class ProducerConfig {
         };
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "application.producer.instances.inventory.outbox.enabled", havingValue = "true")
+    public KafkaOutboxService<String, AllocateInventoryEvent> allocateInventoryOutbox(
+            KafkaProducerConfig kafkaProducerConfig, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, OpenTelemetry openTelemetry) {
+        KafkaProducerProps props = kafkaProducerConfig.getInstances().get("inventory");
+        Serializer<AllocateInventoryEvent> valueSerializer = new JsonSerializer<>();
+        if (props.getValueCodec() != null) {
+            valueSerializer = new RecordCodecSerializer<>();
+            valueSerializer.configure(Map.of(RecordCodecSerializer.VALUE_CODEC_CONFIG, props.getValueCodec()), false);
+        }
+        return new KafkaOutboxService<>(props, jdbcTemplate, transactionManager, new StringSerializer(),
+                valueSerializer, openTelemetry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "application.producer.instances.inventory.outbox.enabled", havingValue = "true")
+    public KafkaOutboxRelay allocateInventoryOutboxRelay(KafkaProducerConfig kafkaProducerConfig, JdbcTemplate jdbcTemplate,
+                                                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        return new KafkaOutboxRelay(kafkaProducerConfig.getInstances().get("inventory"), jdbcTemplate,
+                transactionManager, meterRegistry);
+    }
+
 //    @Bean
     public ProducerFactory<String, String> producerFactory(KafkaProducerConfig kafkaProducerConfig) {
         Map<String, Object> configProps = new HashMap<>();
@@ -0,0 +1,41 @@
+package dev.shubham.labs.ecomm.graphql;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+
+@Configuration(proxyBeanMethods = false)
+public class GraphQlConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "application.graphql")
+    public GraphQlProps graphQlProps() {
+        return new GraphQlProps();
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(GraphQlProps graphQlProps) {
+        return new MaxQueryComplexityInstrumentation(graphQlProps.getMaxComplexity(), productsComplexity());
+    }
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(GraphQlProps graphQlProps) {
+        return new MaxQueryDepthInstrumentation(graphQlProps.getMaxDepth());
+    }
+
+    // A products query fans out once per id, so its selection is charged that many times
+    private static FieldComplexityCalculator productsComplexity() {
+        return (environment, childComplexity) -> {
+            if ("products".equals(environment.getField().getName())
+                    && environment.getArguments().get("ids") instanceof Collection<?> ids) {
+                return Math.max(1, ids.size()) * (1 + childComplexity);
+            }
+            return 1 + childComplexity;
+        };
+    }
+}
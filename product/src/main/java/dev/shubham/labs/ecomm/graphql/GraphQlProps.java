@@ -0,0 +1,17 @@
+package dev.shubham.labs.ecomm.graphql;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class GraphQlProps {
+
+    // every field costs 1 plus its children, a products list costs that once per requested id
+    private int maxComplexity = 5_000;
+    private int maxDepth = 10;
+    // ids per inventory call made by the availability loader
+    private int maxBatchSize = 500;
+}
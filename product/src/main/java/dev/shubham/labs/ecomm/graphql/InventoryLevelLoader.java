@@ -0,0 +1,39 @@
+package dev.shubham.labs.ecomm.graphql;
+
+import dev.shubham.labs.ecomm.client.InventoryLevel;
+import dev.shubham.labs.ecomm.client.InventoryRestClient;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Resolves every availability field of a GraphQL request through one DataLoader, so a product listing costs
+// one inventory call per maxBatchSize ids instead of one per product. The DataLoader is created per request
+// and caches by id for the rest of it. Ids the inventory service does not return resolve to null.
+// Ids go in a POST body rather than the query string, which would outgrow the server's header limit long
+// before maxBatchSize ids.
+@Component
+public class InventoryLevelLoader {
+
+    private final InventoryRestClient inventoryRestClient;
+
+    public InventoryLevelLoader(BatchLoaderRegistry registry, InventoryRestClient inventoryRestClient,
+                                GraphQlProps graphQlProps) {
+        this.inventoryRestClient = inventoryRestClient;
+        registry.forTypePair(String.class, InventoryLevel.class)
+                .withOptions(options -> options.setMaxBatchSize(graphQlProps.getMaxBatchSize()))
+                .registerMappedBatchLoader((productIds, environment) -> Mono.fromCallable(() -> load(productIds)));
+    }
+
+    Map<String, InventoryLevel> load(Set<String> productIds) {
+        Map<String, InventoryLevel> byId = new HashMap<>(productIds.size());
+        try (Stream<InventoryLevel> levels = inventoryRestClient.streamInventory(productIds)) {
+            levels.forEach(level -> byId.put(level.productId(), level));
+        }
+        return byId;
+    }
+}
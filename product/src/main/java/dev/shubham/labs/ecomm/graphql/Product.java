@@ -0,0 +1,4 @@
+package dev.shubham.labs.ecomm.graphql;
+
+public record Product(String id) {
+}
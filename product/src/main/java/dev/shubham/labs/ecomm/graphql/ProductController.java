@@ -0,0 +1,30 @@
+package dev.shubham.labs.ecomm.graphql;
+
+import dev.shubham.labs.ecomm.client.InventoryLevel;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Controller
+public class ProductController {
+
+    @QueryMapping
+    Product product(@Argument String id) {
+        return new Product(id);
+    }
+
+    @QueryMapping
+    List<Product> products(@Argument List<String> ids) {
+        return ids.stream().distinct().map(Product::new).toList();
+    }
+
+    @SchemaMapping
+    CompletableFuture<InventoryLevel> availability(Product product, DataLoader<String, InventoryLevel> loader) {
+        return loader.load(product.id());
+    }
+}
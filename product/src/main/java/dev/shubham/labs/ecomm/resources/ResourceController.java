@@ -1,20 +1,31 @@
 package dev.shubham.labs.ecomm.resources;
 
+import dev.shubham.labs.availability.AvailabilityStore;
+import dev.shubham.labs.ecomm.client.InventoryLevel;
 import dev.shubham.labs.ecomm.client.InventoryRestClient;
 import dev.shubham.labs.kafka.AllocateInventoryEvent;
+import dev.shubham.labs.kafka.producer.KafkaOutboxService;
 import dev.shubham.labs.kafka.producer.KafkaProducerService;
 import io.opentelemetry.api.OpenTelemetry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @RestController
 @Slf4j
@@ -23,8 +34,10 @@ public class ResourceController {
 
     private final InventoryRestClient inventoryRestClient;
     private final KafkaProducerService<String, AllocateInventoryEvent> allocateInventoryProducerService;
+    private final ObjectProvider<KafkaOutboxService<String, AllocateInventoryEvent>> allocateInventoryOutbox;
     private final KafkaTemplate<String, AllocateInventoryEvent> kafkaTemplate;
     private final OpenTelemetry openTelemetry;
+    private final ObjectProvider<AvailabilityStore> availabilityStore;
 //    private final KafkaTemplate<String, String> kafkaTemplateCusTom;
 
     @GetMapping(path = "/test")
@@ -36,8 +49,30 @@ public class ResourceController {
 //        kafkaTemplateCusTom.send(message);
 //        kafkaTemplate.send(message);
 //        kafkaTemplate.send("allocate-inventory-event", new AllocateInventoryEvent(UUID.randomUUID().toString()));
-        allocateInventoryProducerService.send(new AllocateInventoryEvent(UUID.randomUUID().toString()));
+//        allocateInventoryProducerService.send(new AllocateInventoryEvent(UUID.randomUUID().toString()));
+        var event = new AllocateInventoryEvent(UUID.randomUUID().toString());
+        // without the outbox relay running, rows would never leave kafka_outbox
+        KafkaOutboxService<String, AllocateInventoryEvent> outbox = allocateInventoryOutbox.getIfAvailable();
+        if (outbox != null) {
+            outbox.send(event);
+        } else {
+            allocateInventoryProducerService.send(event);
+        }
         return inventoryRestClient.findInventory(Collections.singleton("test"));
 
     }
+
+    // Served from the shared availability cache, asking the inventory service only for products it lacks
+    @PostMapping(path = "/availability")
+    ResponseEntity<Map<String, Integer>> availability(@RequestBody Collection<String> productIds) {
+        AvailabilityStore store = availabilityStore.getIfAvailable();
+        Map<String, Integer> available = new LinkedHashMap<>(store != null ? store.getAll(productIds) : Map.of());
+        List<String> missing = productIds.stream().filter(productId -> !available.containsKey(productId)).toList();
+        if (!missing.isEmpty()) {
+            try (Stream<InventoryLevel> levels = inventoryRestClient.streamInventory(missing)) {
+                levels.forEach(level -> available.put(level.productId(), level.available()));
+            }
+        }
+        return ResponseEntity.ok(available);
+    }
 }
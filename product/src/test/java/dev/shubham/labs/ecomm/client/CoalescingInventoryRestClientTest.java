@@ -0,0 +1,81 @@
+package dev.shubham.labs.ecomm.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.shubham.labs.client.ClientProps;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoalescingInventoryRestClientTest {
+
+    private final StubInventory inventory = new StubInventory();
+    private CoalescingInventoryRestClient client;
+
+    @BeforeEach
+    void setUp() {
+        ClientProps.Coalescing props = new ClientProps.Coalescing();
+        props.setMaxBatchSize(2);
+        props.setMaxDelay(Duration.ofSeconds(5));
+        client = new CoalescingInventoryRestClient(inventory, new ObjectMapper(), props);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void concurrentCallersGetOnlyTheirOwnProduct() {
+        var beer1 = CompletableFuture.supplyAsync(() -> client.findInventory(List.of("beer-1")));
+        var beer2 = CompletableFuture.supplyAsync(() -> client.findInventory(List.of("beer-2")));
+
+        assertThat(beer1.join().getBody()).isEqualTo("[{\"productId\":\"beer-1\",\"available\":1,\"reserved\":0}]");
+        assertThat(beer2.join().getBody()).isEqualTo("[{\"productId\":\"beer-2\",\"available\":2,\"reserved\":0}]");
+        assertThat(inventory.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void missingProductGetsNotFound() {
+        inventory.missing = "beer-2";
+
+        var beer1 = CompletableFuture.supplyAsync(() -> client.findInventory(List.of("beer-1")));
+        var beer2 = CompletableFuture.supplyAsync(() -> client.findInventory(List.of("beer-2")));
+
+        assertThat(beer1.join().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(beer2.join().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private static class StubInventory implements InventoryRestClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile String missing;
+
+        @Override
+        public ResponseEntity<String> findInventory(Collection<String> productId) {
+            calls.incrementAndGet();
+            String body = productId.stream()
+                    .filter(id -> !id.equals(missing))
+                    .map(id -> "{\"productId\":\"" + id + "\",\"available\":" + id.substring(id.length() - 1)
+                            + ",\"reserved\":0}")
+                    .collect(Collectors.joining(",", "[", "]"));
+            return ResponseEntity.ok(body);
+        }
+
+        @Override
+        public ResponseEntity<InputStream> queryInventory(Collection<String> productIds) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package dev.shubham.labs.ecomm.graphql;
+
+import dev.shubham.labs.ecomm.client.InventoryLevel;
+import dev.shubham.labs.ecomm.client.InventoryRestClient;
+import graphql.GraphQLContext;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryLevelLoaderTest {
+
+    private final StubInventory inventory = new StubInventory();
+    private DataLoader<String, InventoryLevel> loader;
+
+    @BeforeEach
+    void setUp() {
+        DefaultBatchLoaderRegistry batchLoaders = new DefaultBatchLoaderRegistry();
+        new InventoryLevelLoader(batchLoaders, inventory, new GraphQlProps());
+        DataLoaderRegistry dataLoaders = DataLoaderRegistry.newRegistry().build();
+        batchLoaders.registerDataLoaders(dataLoaders, GraphQLContext.newContext().build());
+        loader = dataLoaders.getDataLoader(InventoryLevel.class.getName());
+    }
+
+    @Test
+    void resolvesAFullPageOfProductsWithOneInventoryCall() {
+        List<String> productIds = IntStream.range(0, 500).mapToObj(i -> "product-" + i).toList();
+
+        List<CompletableFuture<InventoryLevel>> levels = productIds.stream().map(loader::load).toList();
+        loader.dispatch();
+
+        assertThat(levels).allSatisfy(level -> assertThat(level.join()).isNotNull());
+        assertThat(levels.get(42).join().productId()).isEqualTo("product-42");
+        assertThat(inventory.calls).hasSize(1);
+        assertThat(inventory.calls.getFirst()).hasSize(500);
+    }
+
+    @Test
+    void productsTheInventoryDoesNotReturnResolveToNull() {
+        inventory.missing = "product-2";
+
+        CompletableFuture<InventoryLevel> present = loader.load("product-1");
+        CompletableFuture<InventoryLevel> missing = loader.load("product-2");
+        loader.dispatch();
+
+        assertThat(present.join()).isEqualTo(new InventoryLevel("product-1", 1, 0));
+        assertThat(missing.join()).isNull();
+    }
+
+    private static class StubInventory implements InventoryRestClient {
+
+        private final List<Collection<String>> calls = new CopyOnWriteArrayList<>();
+        private volatile String missing;
+
+        @Override
+        public ResponseEntity<String> findInventory(Collection<String> productId) {
+            throw new UnsupportedOperationException("the loader must not put ids in the query string");
+        }
+
+        @Override
+        public ResponseEntity<InputStream> queryInventory(Collection<String> productIds) {
+            calls.add(List.copyOf(productIds));
+            String body = productIds.stream()
+                    .filter(id -> !id.equals(missing))
+                    .map(id -> "{\"productId\":\"" + id + "\",\"available\":" + id.substring(id.length() - 1)
+                            + ",\"reserved\":0}")
+                    .collect(Collectors.joining("\n"));
+            return ResponseEntity.ok(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+}